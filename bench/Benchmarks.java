@@ -0,0 +1,270 @@
+import TrabajoGrafosCompi.*;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/*
+  Benchmarks de las operaciones principales sobre grafos sintéticos
+  (GeneradoresGrafos): construcción con addEdge, parseo del texto,
+  Dijkstra (secuencial y delta-stepping), Bellman-Ford y las consultas de camino (getPath, countVictims,
+  calcDistancia). Cada medición hace iteraciones de calentamiento para que
+  el JIT compile, y luego reporta ns/op y bytes asignados por operación
+  (contador de la JVM por hilo, no necesita agente ni profiler).
+
+  Uso (después de compilar src en out):
+    javac -cp out -d out-bench bench/*.java
+    java --add-modules jdk.incubator.vector -cp out:out-bench Benchmarks [--filtro texto] [--salida archivo]
+                                                                      [--comparar archivo]
+
+  --comparar lee un resultado anterior (por ejemplo bench/resultados/baseline.txt)
+  y marca con REGRESION las filas más de un 10% más lentas (siempre que la
+  diferencia supere la suma de los desvíos).
+ */
+public final class Benchmarks {
+
+    private static final int CALENTAMIENTO = 5;
+
+    /*
+      Duración mínima del calentamiento: con un solo procesador la compilación
+      del JIT compite con la medición, así que se calienta hasta que termina
+     */
+    private static final long MIN_NS_CALENTAMIENTO = 2_000_000_000L;
+    private static final int MEDICIONES = 10;
+
+    //Tiempo mínimo de cada medición: las operaciones rápidas se repiten en lote
+    private static final long MIN_NS_MEDICION = 50_000_000L;
+
+    //Umbral para marcar una regresión contra el archivo de --comparar
+    private static final double UMBRAL_REGRESION = 1.10;
+
+    //Evita que el JIT elimine resultados que no se usan
+    private static volatile long sumidero;
+
+    private interface Operacion {
+        long run();
+    }
+
+    private static final class Resultado {
+        final String nombre;
+        final double nsOp;
+        final double nsDesvio;
+        final double bytesOp;
+
+        Resultado(String nombre, double nsOp, double nsDesvio, double bytesOp) {
+            this.nombre = nombre;
+            this.nsOp = nsOp;
+            this.nsDesvio = nsDesvio;
+            this.bytesOp = bytesOp;
+        }
+    }
+
+    private final String filtro;
+    private final List<Resultado> resultados = new ArrayList<>();
+
+    private Benchmarks(String filtro) {
+        this.filtro = filtro;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String filtro = null;
+        Path salida = null;
+        Path comparar = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--filtro": filtro = args[++i]; break;
+                case "--salida": salida = Paths.get(args[++i]); break;
+                case "--comparar": comparar = Paths.get(args[++i]); break;
+                default:
+                    System.err.println("Argumento desconocido: " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        Benchmarks b = new Benchmarks(filtro);
+        List<GeneradoresGrafos.Aristas> grafos = Arrays.asList(
+                GeneradoresGrafos.grid(32),
+                GeneradoresGrafos.grid(100),
+                GeneradoresGrafos.disperso(1_000, 4),
+                GeneradoresGrafos.disperso(10_000, 4),
+                GeneradoresGrafos.denso(300, 0.2),
+                GeneradoresGrafos.libreEscala(1_000, 3),
+                GeneradoresGrafos.libreEscala(10_000, 3),
+                GeneradoresGrafos.dag(1_000, 4),
+                GeneradoresGrafos.dag(10_000, 4));
+
+        if (!BellmanFordMax.VECTOR_DISPONIBLE) {
+            System.out.println("# sin jdk.incubator.vector: bellmanford.vectorial mide el recorrido escalar");
+        }
+        System.out.println(encabezado());
+        for (GeneradoresGrafos.Aristas a : grafos) {
+            b.medirGrafo(a);
+        }
+
+        Map<String, Resultado> anteriores = comparar != null ? leer(comparar) : Collections.emptyMap();
+        int regresiones = 0;
+        if (comparar != null) {
+            System.out.println();
+            System.out.println("Comparación con " + comparar + ":");
+            for (Resultado r : b.resultados) {
+                Resultado ant = anteriores.get(r.nombre);
+                if (ant == null) continue;
+                double cambio = r.nsOp / ant.nsOp;
+                //Además del umbral, la diferencia tiene que superar el ruido de ambas mediciones
+                boolean regresion = cambio > UMBRAL_REGRESION && r.nsOp - ant.nsOp > r.nsDesvio + ant.nsDesvio;
+                if (regresion) regresiones++;
+                System.out.printf(Locale.ROOT, "%-40s %8.2fx%s%n", r.nombre, cambio, regresion ? "  REGRESION" : "");
+            }
+        }
+
+        if (salida != null) {
+            List<String> lineas = new ArrayList<>();
+            lineas.add("# java " + System.getProperty("java.version") + ", "
+                    + Runtime.getRuntime().availableProcessors() + " procesadores, semilla " + GeneradoresGrafos.SEMILLA
+                    + ", vector " + (BellmanFordMax.VECTOR_DISPONIBLE ? "si" : "no"));
+            lineas.add(encabezado());
+            for (Resultado r : b.resultados) lineas.add(formato(r));
+            Files.write(salida, lineas, StandardCharsets.UTF_8);
+        }
+        if (regresiones > 0) System.exit(1);
+    }
+
+    private void medirGrafo(GeneradoresGrafos.Aristas a) {
+        String p = a.nombre + "/";
+        String texto = a.toText();
+        Graph g = a.build();
+        CsrGraph csr = g.freeze();
+        int origen = 0;
+        int destino = a.n - 1;
+
+        medir(p + "construccion", () -> a.build().getM());
+        medir(p + "parseo", () -> GraphLoader.parse(texto).getM());
+        medir(p + "freeze", () -> a.build().freeze().getM());
+
+        DijkstraAlgoritmo dijkstra = new DijkstraAlgoritmo(csr);
+        medir(p + "dijkstra", () -> {
+            dijkstra.run(origen);
+            return dijkstra.getDistance(destino);
+        });
+        dijkstra.run(origen);
+        medir(p + "dijkstra.getPath", () -> dijkstra.getPath(destino).size());
+        List<Integer> caminoD = dijkstra.getPath(destino);
+        medir(p + "dijkstra.countVictims", () -> dijkstra.countVictims(caminoD));
+
+        // Frontera acotada a un 10% más que el camino más corto (sin cota puede ser enorme);
+        // en las grillas la frontera exacta es exponencial y se mide hasta el tope de etiquetas
+        FronteraPareto pareto = new FronteraPareto(csr);
+        pareto.setMaxEtiquetas(1 << 16);
+        int distancia = dijkstra.getDistance(destino);
+        pareto.setMaxDistancia(distancia == Integer.MAX_VALUE ? distancia : distancia + distancia / 10);
+        medir(p + "pareto", () -> {
+            try {
+                return pareto.calcular(origen, destino).size();
+            } catch (IllegalStateException e) {
+                return -1;
+            }
+        });
+
+        KCaminosCortos kCaminos = new KCaminosCortos(csr);
+        medir(p + "kcaminos.1000", () -> kCaminos.calcular(origen, destino, 1000).size());
+
+        DeltaStepping delta = new DeltaStepping(csr, ForkJoinPool.commonPool());
+        medir(p + "deltastepping", () -> {
+            delta.run(origen);
+            return delta.getDistance(destino);
+        });
+
+        BellmanFordMax bf = new BellmanFordMax(csr);
+        medir(p + "bellmanford", () -> {
+            bf.run(origen);
+            return bf.getMaxVictima(destino);
+        });
+        BellmanFordMax bfParalelo = new BellmanFordMax(csr);
+        bfParalelo.setModo(BellmanFordMax.Modo.PARALELO);
+        medir(p + "bellmanford.paralelo", () -> {
+            bfParalelo.run(origen);
+            return bfParalelo.getMaxVictima(destino);
+        });
+        BellmanFordMax bfVectorial = new BellmanFordMax(csr);
+        bfVectorial.setModo(BellmanFordMax.Modo.VECTORIAL);
+        medir(p + "bellmanford.vectorial", () -> {
+            bfVectorial.run(origen);
+            return bfVectorial.getMaxVictima(destino);
+        });
+        bf.run(origen);
+        medir(p + "bellmanford.getPath", () -> bf.getPath(destino).size());
+        List<Integer> caminoB = bf.getPath(destino);
+        medir(p + "bellmanford.calcDistancia", () -> bf.calcDistancia(caminoB));
+    }
+
+    private void medir(String nombre, Operacion op) {
+        if (filtro != null && !nombre.contains(filtro)) return;
+
+        //Cuántas repeticiones hacen falta para que una medición dure MIN_NS_MEDICION
+        long reps = 1;
+        while (true) {
+            long t0 = System.nanoTime();
+            for (long i = 0; i < reps; i++) sumidero += op.run();
+            long t = System.nanoTime() - t0;
+            if (t >= MIN_NS_MEDICION / 4 || reps >= 1L << 30) break;
+            reps *= 2;
+        }
+        reps = Math.max(1, reps * 4);
+
+        long inicioCalentamiento = System.nanoTime();
+        for (int w = 0; w < CALENTAMIENTO || System.nanoTime() - inicioCalentamiento < MIN_NS_CALENTAMIENTO; w++) {
+            for (long i = 0; i < reps; i++) sumidero += op.run();
+        }
+
+        double[] ns = new double[MEDICIONES];
+        long bytes0 = bytesAsignados();
+        for (int k = 0; k < MEDICIONES; k++) {
+            long t0 = System.nanoTime();
+            for (long i = 0; i < reps; i++) sumidero += op.run();
+            ns[k] = (double) (System.nanoTime() - t0) / reps;
+        }
+        long bytes = bytesAsignados() - bytes0;
+
+        double media = 0;
+        for (double x : ns) media += x;
+        media /= MEDICIONES;
+        double var = 0;
+        for (double x : ns) var += (x - media) * (x - media);
+        double desvio = Math.sqrt(var / (MEDICIONES - 1));
+
+        Resultado r = new Resultado(nombre, media, desvio, bytes0 < 0 ? -1 : (double) bytes / (reps * MEDICIONES));
+        resultados.add(r);
+        System.out.println(formato(r));
+    }
+
+    //Bytes asignados por el hilo actual (-1 si la JVM no lo soporta)
+    private static long bytesAsignados() {
+        java.lang.management.ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        if (mx instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) mx).getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    private static String encabezado() {
+        return String.format(Locale.ROOT, "%-40s %14s %12s %14s", "benchmark", "ns/op", "+-", "B/op");
+    }
+
+    private static String formato(Resultado r) {
+        return String.format(Locale.ROOT, "%-40s %14.1f %12.1f %14.1f", r.nombre, r.nsOp, r.nsDesvio, r.bytesOp);
+    }
+
+    //Lee un archivo escrito con --salida
+    private static Map<String, Resultado> leer(Path archivo) throws IOException {
+        Map<String, Resultado> res = new HashMap<>();
+        for (String linea : Files.readAllLines(archivo, StandardCharsets.UTF_8)) {
+            if (linea.startsWith("#") || linea.startsWith("benchmark") || linea.trim().isEmpty()) continue;
+            String[] t = linea.trim().split("\\s+");
+            res.put(t[0], new Resultado(t[0], Double.parseDouble(t[1]), Double.parseDouble(t[2]), Double.parseDouble(t[3])));
+        }
+        return res;
+    }
+}
@@ -0,0 +1,183 @@
+import TrabajoGrafosCompi.Graph;
+
+import java.util.*;
+
+/*
+  Generadores de grafos sintéticos para los benchmarks. Todos usan una
+  semilla fija, así que el mismo nombre y tamaño produce siempre el mismo
+  grafo (y los resultados se pueden comparar entre ejecuciones).
+  Cada generador devuelve las aristas {u, v, d, c} en arreglos paralelos
+  para poder medir aparte la construcción con Graph.addEdge.
+ */
+public final class GeneradoresGrafos {
+
+    public static final long SEMILLA = 20240601L;
+
+    //Distancia máxima de las aristas generadas
+    private static final int MAX_DIST = 100;
+
+    //Víctimas máximas por nodo
+    private static final int MAX_VICTIMAS = 10;
+
+    private GeneradoresGrafos() {
+    }
+
+    //Aristas de un grafo generado, en orden de inserción
+    public static final class Aristas {
+        public final String nombre;
+        public final int n;
+        public final int m;
+        public final int[] u;
+        public final int[] v;
+        public final int[] d;
+        public final int[] c;
+
+        Aristas(String nombre, int n, int[] u, int[] v, int[] d, int[] c, int m) {
+            this.nombre = nombre;
+            this.n = n;
+            this.m = m;
+            this.u = u;
+            this.v = v;
+            this.d = d;
+            this.c = c;
+        }
+
+        public Graph build() {
+            Graph g = new Graph(n, m);
+            for (int i = 0; i < m; i++) {
+                g.addEdge(u[i], v[i], d[i], c[i]);
+            }
+            return g;
+        }
+
+        //El mismo grafo en el formato de texto de la interfaz
+        public String toText() {
+            StringBuilder sb = new StringBuilder(m * 16);
+            sb.append(n).append(' ').append(m).append('\n');
+            for (int i = 0; i < m; i++) {
+                sb.append(u[i]).append(' ').append(v[i]).append(' ')
+                        .append(d[i]).append(' ').append(c[i]).append('\n');
+            }
+            return sb.toString();
+        }
+    }
+
+    //Acumula aristas con distancias y víctimas aleatorias
+    private static final class Acumulador {
+        final Random rnd;
+        final int n;
+        final int[] victimas;
+        int[] u = new int[16];
+        int[] v = new int[16];
+        int[] d = new int[16];
+        int[] c = new int[16];
+        int m;
+
+        Acumulador(int n, long semilla) {
+            this.n = n;
+            this.rnd = new Random(semilla);
+            //Las víctimas son del nodo: todas las aristas hacia v traen el mismo c
+            victimas = new int[n];
+            for (int i = 0; i < n; i++) victimas[i] = rnd.nextInt(MAX_VICTIMAS + 1);
+        }
+
+        void add(int a, int b) {
+            if (m == u.length) {
+                int cap = m * 2;
+                u = Arrays.copyOf(u, cap);
+                v = Arrays.copyOf(v, cap);
+                d = Arrays.copyOf(d, cap);
+                c = Arrays.copyOf(c, cap);
+            }
+            u[m] = a;
+            v[m] = b;
+            d[m] = 1 + rnd.nextInt(MAX_DIST);
+            c[m] = victimas[b];
+            m++;
+        }
+
+        Aristas done(String nombre) {
+            return new Aristas(nombre, n, u, v, d, c, m);
+        }
+    }
+
+    //Cuadrícula lado x lado con aristas en ambos sentidos entre vecinos
+    public static Aristas grid(int lado) {
+        Acumulador acc = new Acumulador(lado * lado, SEMILLA);
+        for (int r = 0; r < lado; r++) {
+            for (int col = 0; col < lado; col++) {
+                int x = r * lado + col;
+                if (col + 1 < lado) {
+                    acc.add(x, x + 1);
+                    acc.add(x + 1, x);
+                }
+                if (r + 1 < lado) {
+                    acc.add(x, x + lado);
+                    acc.add(x + lado, x);
+                }
+            }
+        }
+        return acc.done("grid-" + lado + "x" + lado);
+    }
+
+    //Aleatorio disperso: grado medio fijo, extremos uniformes
+    public static Aristas disperso(int n, int grado) {
+        Acumulador acc = new Acumulador(n, SEMILLA + 1);
+        for (long i = 0; i < (long) n * grado; i++) {
+            acc.add(acc.rnd.nextInt(n), acc.rnd.nextInt(n));
+        }
+        return acc.done("disperso-" + n);
+    }
+
+    //Denso: cada par (u, v) con u != v tiene una arista con probabilidad p
+    public static Aristas denso(int n, double p) {
+        Acumulador acc = new Acumulador(n, SEMILLA + 2);
+        for (int a = 0; a < n; a++) {
+            for (int b = 0; b < n; b++) {
+                if (a != b && acc.rnd.nextDouble() < p) acc.add(a, b);
+            }
+        }
+        return acc.done("denso-" + n);
+    }
+
+    /*
+      Libre de escala (Barabási-Albert): cada nodo nuevo se conecta con k
+      nodos elegidos con probabilidad proporcional a su grado. Las aristas
+      van en ambos sentidos.
+     */
+    public static Aristas libreEscala(int n, int k) {
+        Acumulador acc = new Acumulador(n, SEMILLA + 3);
+        //Cada extremo de arista aparece una vez: elegir de aquí es elegir por grado
+        int[] extremos = new int[2 * n * k + 2];
+        int total = 0;
+        for (int x = 1; x <= Math.min(k, n - 1); x++) {
+            acc.add(0, x);
+            acc.add(x, 0);
+            extremos[total++] = 0;
+            extremos[total++] = x;
+        }
+        for (int x = k + 1; x < n; x++) {
+            for (int j = 0; j < k; j++) {
+                int y = extremos[acc.rnd.nextInt(total)];
+                acc.add(x, y);
+                acc.add(y, x);
+                extremos[total++] = x;
+                extremos[total++] = y;
+            }
+        }
+        return acc.done("libre-escala-" + n);
+    }
+
+    //DAG: solo aristas u -> v con u < v, más una cadena 0 -> 1 -> ... para que todo sea alcanzable
+    public static Aristas dag(int n, int grado) {
+        Acumulador acc = new Acumulador(n, SEMILLA + 4);
+        for (int x = 0; x + 1 < n; x++) {
+            acc.add(x, x + 1);
+        }
+        for (long i = 0; i < (long) n * (grado - 1); i++) {
+            int a = acc.rnd.nextInt(n - 1);
+            acc.add(a, a + 1 + acc.rnd.nextInt(n - 1 - a));
+        }
+        return acc.done("dag-" + n);
+    }
+}
@@ -1,14 +1,17 @@
 
-import TrabajoGrafosCompi.BellmanFordMax;
-import TrabajoGrafosCompi.DijkstraAlgoritmo;
+import TrabajoGrafosCompi.CacheCaminos;
+import TrabajoGrafosCompi.FronteraPareto;
 import TrabajoGrafosCompi.Graph;
+import TrabajoGrafosCompi.GraphLoader;
 import TrabajoGrafosCompi.GraphPanel;
+import TrabajoGrafosCompi.Progreso;
 
 import javax.swing.*;
 import javax.swing.border.*;
 import java.awt.*;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.*;
 
 /*
     n = nodos, m = aristas
@@ -23,9 +26,32 @@ public class Main extends JFrame {
     private JTextArea resultArea;     // Muestra los resultados
     private GraphPanel graphPanel;    // Visualización del grafo
     private JButton runBtn;           // Botón para ejecutar
+    private JButton cancelBtn;        // Corta el cálculo en curso
+    private JProgressBar progressBar; // Avance de Dijkstra y Bellman-Ford
+    private JComboBox<String> paretoBox; // Ruta de la frontera de Pareto a resaltar
 
     // Estado del programa
     private Graph currentGraph;
+    private String currentInput;      // Texto con el que se construyó currentGraph
+
+    // Árboles de caminos por origen, reutilizados mientras el grafo no cambie
+    private final CacheCaminos cache = new CacheCaminos(64L << 20);
+
+    // Frontera de Pareto del último cálculo (null si no se pudo calcular)
+    private List<FronteraPareto.Ruta> frontera;
+
+    // Etiquetas máximas de la frontera en la interfaz: en grafos grandes no vale la pena esperarla
+    private static final int MAX_ETIQUETAS_GUI = 1 << 20;
+
+    // Cálculo en segundo plano (null si no hay ninguno corriendo)
+    private Calculo calculo;
+
+    // Hilo para Bellman-Ford mientras el SwingWorker corre Dijkstra
+    private final ExecutorService bfExecutor = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "bellman-ford");
+        t.setDaemon(true);
+        return t;
+    });
 
     // Colores del tema
     private static final Color BG = new Color(15, 10, 30);
@@ -111,7 +137,49 @@ public class Main extends JFrame {
         runBtn.addActionListener(e -> runAlgorithms());
         controlRow.add(runBtn);
 
-        inputPanel.add(controlRow, BorderLayout.SOUTH);
+        cancelBtn = new JButton("■ Cancelar");
+        cancelBtn.setBackground(BTN_BG);
+        cancelBtn.setForeground(BTN_FG);
+        cancelBtn.setFont(new Font("SansSerif", Font.BOLD, 12));
+        cancelBtn.setFocusPainted(false);
+        cancelBtn.setBorder(new EmptyBorder(6, 14, 6, 14));
+        cancelBtn.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        cancelBtn.setEnabled(false);
+        cancelBtn.addActionListener(e -> {
+            if (calculo != null) calculo.cancel(true);
+        });
+        controlRow.add(cancelBtn);
+
+        // Barra de avance debajo de los botones, visible solo mientras se calcula
+        progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        progressBar.setForeground(ACCENT);
+        progressBar.setBackground(INPUT_BG);
+        progressBar.setVisible(false);
+
+        // Elegir una ruta de la frontera de Pareto para resaltarla en el grafo
+        JPanel paretoRow = new JPanel(new FlowLayout(FlowLayout.LEFT, 6, 0));
+        paretoRow.setBackground(PANEL_BG);
+        paretoRow.add(styledLabel("Pareto:"));
+        paretoBox = new JComboBox<>();
+        paretoBox.setBackground(INPUT_BG);
+        paretoBox.setForeground(TEXT_FG);
+        paretoBox.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        paretoBox.setPrototypeDisplayValue("99. distancia 0000000, víctimas 0000000");
+        paretoBox.setEnabled(false);
+        paretoBox.addActionListener(e -> {
+            int i = paretoBox.getSelectedIndex();
+            boolean elegida = frontera != null && i > 0 && i <= frontera.size();
+            graphPanel.setParetoPath(elegida ? frontera.get(i - 1).getCamino() : null);
+        });
+        paretoRow.add(paretoBox);
+
+        JPanel southRow = new JPanel(new BorderLayout(0, 2));
+        southRow.setBackground(PANEL_BG);
+        southRow.add(controlRow, BorderLayout.NORTH);
+        southRow.add(paretoRow, BorderLayout.CENTER);
+        southRow.add(progressBar, BorderLayout.SOUTH);
+        inputPanel.add(southRow, BorderLayout.SOUTH);
         leftPanel.add(inputPanel, BorderLayout.CENTER);
 
         // Resultados
@@ -193,97 +261,255 @@ public class Main extends JFrame {
     }
 
     /*
-      Lee los datos, construye el grafo, ejecuta los algoritmos y muestra resultados.
+      Lee los campos y lanza el cálculo en segundo plano (Calculo). La
+      interfaz sigue respondiendo mientras tanto; el panel y los resultados
+      se actualizan recién cuando los dos algoritmos terminaron.
      */
     private void runAlgorithms() {
+        if (calculo != null) return;
+        int start;
+        int end;
         try {
-            // 1. Parsear entrada
-            String rawInput = inputArea.getText().trim();
-            Scanner sc = new Scanner(rawInput);
+            start = Integer.parseInt(startField.getText().trim());
+            end = Integer.parseInt(endField.getText().trim());
+        } catch (NumberFormatException ex) {
+            showError("Error al procesar la entrada:\n" + ex.getMessage() +
+                    "\n\nFormato esperado:\nn m\nu v d c\n...");
+            return;
+        }
 
-            int n = sc.nextInt(); // número de nodos
-            int m = sc.nextInt(); // número de aristas
+        calculo = new Calculo(inputArea.getText().trim(), start, end);
+        calculo.addPropertyChangeListener(e -> {
+            if ("progress".equals(e.getPropertyName())) progressBar.setValue((Integer) e.getNewValue());
+        });
+        runBtn.setEnabled(false);
+        cancelBtn.setEnabled(true);
+        progressBar.setValue(0);
+        progressBar.setString(null);
+        progressBar.setVisible(true);
+        calculo.execute();
+    }
+
+    // Origen o destino fuera de rango, detectado recién al conocer n
+    private static final class FueraDeRango extends RuntimeException {
+        FueraDeRango(int n) {
+            super("Origen o destino fuera de rango (0 a " + (n - 1) + ")");
+        }
+    }
+
+    // Lo que calcula Calculo en segundo plano para mostrar en la interfaz
+    private static final class Resultado {
+        String rawInput;
+        Graph graph;
+        int start;
+        int end;
+        List<Integer> dijPath;
+        int dijDist;
+        int dijVictims;
+        List<Integer> bfPath;
+        int bfDist;
+        int bfVictims;
+        List<FronteraPareto.Ruta> frontera;
+        String sinFrontera;
+    }
+
+    /*
+      Parseo y algoritmos fuera del hilo de eventos. Dijkstra corre en el
+      hilo del SwingWorker y Bellman-Ford a la vez en bfExecutor (CacheCaminos
+      calcula cada algoritmo con su propio espacio de trabajo); después se
+      calcula la frontera de Pareto. Los tres avisan su avance por Progreso;
+      la barra muestra el promedio. Cancelar hace que el próximo aviso
+      devuelva false y el algoritmo en curso se corta solo.
+     */
+    private final class Calculo extends SwingWorker<Resultado, Void> {
+        private final String rawInput;
+        private final int start;
+        private final int end;
+
+        // Grafo anterior, leído en el hilo de eventos al crear el cálculo
+        private final Graph prevGraph = currentGraph;
+        private final String prevInput = currentInput;
+
+        private volatile int avanceDijkstra;
+        private volatile int avanceBf;
+        private volatile int avancePareto;
+
+        Calculo(String rawInput, int start, int end) {
+            this.rawInput = rawInput;
+            this.start = start;
+            this.end = end;
+        }
 
-            Graph graph = new Graph(n);
+        // Progreso que guarda el porcentaje de uno de los algoritmos (0 = Dijkstra, 1 = Bellman-Ford, 2 = Pareto)
+        private Progreso progreso(int algoritmo) {
+            return (hecho, total) -> {
+                int p = total == 0 ? 100 : (int) (100 * hecho / total);
+                if (algoritmo == 0) avanceDijkstra = p;
+                else if (algoritmo == 1) avanceBf = p;
+                else avancePareto = p;
+                setProgress((avanceDijkstra + avanceBf + avancePareto) / 3);
+                return !isCancelled() && !Thread.currentThread().isInterrupted();
+            };
+        }
 
-            for (int i = 0; i < m; i++) {
-                int u = sc.nextInt();
-                int v = sc.nextInt();
-                int d = sc.nextInt();
-                int c = sc.nextInt();
-                graph.addEdge(u, v, d, c);
+        @Override
+        protected Resultado doInBackground() throws Exception {
+            Resultado r = new Resultado();
+            r.rawInput = rawInput;
+            r.start = start;
+            r.end = end;
+
+            // 1. Parsear entrada (si el texto no cambió se reutiliza el grafo y sus resultados guardados)
+            Graph graph = rawInput.equals(prevInput) ? prevGraph : GraphLoader.parse(rawInput);
+            if (isCancelled()) throw new CancellationException();
+            int n = graph.getN();
+            if (start < 0 || start >= n || end < 0 || end >= n) throw new FueraDeRango(n);
+            r.graph = graph;
+            // Se compacta una sola vez antes de repartir el grafo entre dos hilos
+            graph.freeze();
+
+            // 2 y 3. Bellman-Ford en otro hilo mientras Dijkstra corre en este
+            Future<CacheCaminos.Arbol> bfFuture = bfExecutor.submit(
+                    () -> cache.bellmanFord(graph, start, progreso(1)));
+            CacheCaminos.Arbol dij;
+            CacheCaminos.Arbol bf;
+            try {
+                dij = cache.dijkstra(graph, start, progreso(0));
+                bf = bfFuture.get();
+            } catch (ExecutionException ex) {
+                Throwable cause = ex.getCause();
+                if (cause instanceof Exception) throw (Exception) cause;
+                throw ex;
+            } finally {
+                // Si Dijkstra falló o se canceló, Bellman-Ford se corta en su próximo aviso
+                bfFuture.cancel(true);
             }
 
-            int start = Integer.parseInt(startField.getText().trim());
-            int end = Integer.parseInt(endField.getText().trim());
+            r.dijPath = dij.getPath(end);
+            r.dijDist = dij.valor(end);
+            r.dijVictims = graph.freeze().pathVictims(r.dijPath);
+            r.bfPath = bf.getPath(end);
+            r.bfVictims = bf.valor(end);
+            r.bfDist = r.bfPath.size() < 2 ? 0 : graph.freeze().pathDistance(r.bfPath);
+
+            // 4. Frontera de Pareto entre los dos extremos
+            if (isCancelled()) throw new CancellationException();
+            FronteraPareto pareto = new FronteraPareto(graph);
+            pareto.setMaxEtiquetas(MAX_ETIQUETAS_GUI);
+            pareto.setProgreso(progreso(2));
+            try {
+                r.frontera = pareto.calcular(start, end);
+            } catch (IllegalStateException ex) {
+                r.sinFrontera = ex.getMessage();
+            }
+            return r;
+        }
 
-            if (start < 0 || start >= n || end < 0 || end >= n) {
-                showError("Origen o destino fuera de rango (0 a " + (n - 1) + ")");
+        // En el hilo de eventos, cuando terminó, falló o se canceló
+        @Override
+        protected void done() {
+            calculo = null;
+            runBtn.setEnabled(true);
+            cancelBtn.setEnabled(false);
+            progressBar.setVisible(false);
+            if (isCancelled()) {
+                resultArea.setText("Cálculo cancelado.\n");
                 return;
             }
-
-            currentGraph = graph;
-
-            // 2. Dijkstra
-            DijkstraAlgoritmo dij = new DijkstraAlgoritmo(graph);
-            dij.run(start);
-            List<Integer> dijPath = dij.getPath(end);
-            int dijDist = dij.getDistance(end);
-            int dijVictims = dij.countVictims(dijPath);
-
-            // 3. Bellman-Ford adaptado
-            BellmanFordMax bf = new BellmanFordMax(graph);
-            bf.run(start);
-            List<Integer> bfPath = bf.getPath(end);
-            int bfVictims = bf.getMaxVictima(end);
-            int bfDist = bf.calcDistancia(bfPath);
-
-            // 4. Actualizar GUI
-            graphPanel.setGraph(graph, start, end);
-            graphPanel.setPaths(dijPath, bfPath);
-
-            // 5. Mostrar resultados
-            StringBuilder sb = new StringBuilder();
-            sb.append("=== RESULTADOS DEL RITUAL ===\n\n");
-
-            sb.append("1. CAMINO MÁS CORTO (DIJKSTRA)\n");
-            sb.append("────────────────────────────\n");
-            if (dijPath.isEmpty()) {
-                sb.append("  ❌ No existe camino\n");
-            } else {
-                sb.append("  Nodos    : ").append(dijPath).append("\n");
-                sb.append("  Distancia: ").append(dijDist).append("\n");
-                sb.append("  Víctimas : ").append(dijVictims).append("\n");
+            try {
+                showResults(get());
+            } catch (ExecutionException ex) {
+                Throwable cause = ex.getCause();
+                if (cause instanceof FueraDeRango) {
+                    showError(cause.getMessage());
+                } else if (cause instanceof CancellationException) {
+                    resultArea.setText("Cálculo cancelado.\n");
+                } else {
+                    showError("Error al procesar la entrada:\n" + cause.getMessage() +
+                            "\n\nFormato esperado:\nn m\nu v d c\n...");
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
             }
+        }
+    }
 
-            sb.append("\n2. MÁS VÍCTIMAS (BELLMAN-FORD)\n");
-            sb.append("────────────────────────────\n");
-            if (bfPath.isEmpty()) {
-                sb.append("  ❌ No existe camino\n");
-            } else {
-                sb.append("  Nodos    : ").append(bfPath).append("\n");
-                sb.append("  Distancia: ").append(bfDist).append("\n");
-                sb.append("  Víctimas : ").append(bfVictims).append("\n");
+    /*
+      Actualiza el panel y el texto de resultados con un cálculo terminado.
+     */
+    private void showResults(Resultado r) {
+        currentGraph = r.graph;
+        currentInput = r.rawInput;
+
+        // 5. Actualizar GUI
+        graphPanel.setGraph(r.graph, r.start, r.end);
+        graphPanel.setPaths(r.dijPath, r.bfPath);
+        frontera = null;
+        paretoBox.removeAllItems();
+        paretoBox.addItem("(ninguna)");
+        if (r.frontera != null) {
+            for (int i = 0; i < r.frontera.size(); i++) {
+                FronteraPareto.Ruta ruta = r.frontera.get(i);
+                paretoBox.addItem(String.format("%d. distancia %d, víctimas %d",
+                        i + 1, ruta.getDistancia(), ruta.getVictimas()));
             }
+        }
+        paretoBox.setSelectedIndex(0);
+        frontera = r.frontera;
+        paretoBox.setEnabled(frontera != null && !frontera.isEmpty());
+
+        // 6. Mostrar resultados
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== RESULTADOS DEL RITUAL ===\n\n");
+
+        sb.append("1. CAMINO MÁS CORTO (DIJKSTRA)\n");
+        sb.append("────────────────────────────\n");
+        if (r.dijPath.isEmpty()) {
+            sb.append("  ❌ No existe camino\n");
+        } else {
+            sb.append("  Nodos    : ").append(r.dijPath).append("\n");
+            sb.append("  Distancia: ").append(r.dijDist).append("\n");
+            sb.append("  Víctimas : ").append(r.dijVictims).append("\n");
+        }
 
-            sb.append("\n════════════════════════════\n");
-            sb.append(" TABLA RESUMEN\n");
-            sb.append("════════════════════════════\n");
-            sb.append(String.format("%-12s | %-20s | %s | %s%n",
-                    "Algoritmo", "Camino", "Dist", "Víct"));
-            sb.append("─────────────────────────────────────────\n");
-            sb.append(String.format("%-12s | %-20s | %-4d | %d%n",
-                    "Dijkstra", dijPath.toString(), dijDist, dijVictims));
-            sb.append(String.format("%-12s | %-20s | %-4d | %d%n",
-                    "Bellman-Ford", bfPath.toString(), bfDist, bfVictims));
-
-            resultArea.setText(sb.toString());
-            resultArea.setCaretPosition(0);
-
-        } catch (Exception ex) {
-            showError("Error al procesar la entrada:\n" + ex.getMessage() +
-                    "\n\nFormato esperado:\nn m\nu v d c\n...");
+        sb.append("\n2. MÁS VÍCTIMAS (BELLMAN-FORD)\n");
+        sb.append("────────────────────────────\n");
+        if (r.bfPath.isEmpty()) {
+            sb.append("  ❌ No existe camino\n");
+        } else {
+            sb.append("  Nodos    : ").append(r.bfPath).append("\n");
+            sb.append("  Distancia: ").append(r.bfDist).append("\n");
+            sb.append("  Víctimas : ").append(r.bfVictims).append("\n");
         }
+
+        sb.append("\n3. FRONTERA DE PARETO (DISTANCIA vs VÍCTIMAS)\n");
+        sb.append("────────────────────────────\n");
+        if (r.frontera == null) {
+            sb.append("  ⚠ ").append(r.sinFrontera).append("\n");
+        } else if (r.frontera.isEmpty()) {
+            sb.append("  ❌ No existe camino\n");
+        } else {
+            for (FronteraPareto.Ruta ruta : r.frontera) {
+                sb.append(String.format("  d=%-5d c=%-5d %s%n",
+                        ruta.getDistancia(), ruta.getVictimas(), ruta.getCamino()));
+            }
+        }
+
+        sb.append("\n════════════════════════════\n");
+        sb.append(" TABLA RESUMEN\n");
+        sb.append("════════════════════════════\n");
+        sb.append(String.format("%-12s | %-20s | %s | %s%n",
+                "Algoritmo", "Camino", "Dist", "Víct"));
+        sb.append("─────────────────────────────────────────\n");
+        sb.append(String.format("%-12s | %-20s | %-4d | %d%n",
+                "Dijkstra", r.dijPath.toString(), r.dijDist, r.dijVictims));
+        sb.append(String.format("%-12s | %-20s | %-4d | %d%n",
+                "Bellman-Ford", r.bfPath.toString(), r.bfDist, r.bfVictims));
+        sb.append(String.format("%nCaché: %d aciertos, %d fallos%n",
+                cache.getAciertos(), cache.getFallos()));
+
+        resultArea.setText(sb.toString());
+        resultArea.setCaretPosition(0);
     }
 
     /*
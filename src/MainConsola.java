@@ -0,0 +1,177 @@
+import TrabajoGrafosCompi.BellmanFordMax;
+import TrabajoGrafosCompi.DijkstraAlgoritmo;
+import TrabajoGrafosCompi.GraphLoader;
+import TrabajoGrafosCompi.GraphView;
+import TrabajoGrafosCompi.MappedGraph;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/*
+  Modo sin interfaz gráfica (para servidores y trabajos por lotes).
+  Carga el grafo una vez y responde una consulta "inicio fin" por línea,
+  leídas de un archivo o de la entrada estándar:
+
+      java MainConsola grafo.txt consultas.txt
+      java MainConsola mapa.bin < consultas.txt
+
+  El grafo puede estar en el formato de texto de la interfaz o en el formato
+  binario de MappedGraph. Por cada consulta se escribe una línea:
+
+      inicio fin D distancia víctimas camino B distancia víctimas camino
+
+  con el camino como "0-1-3" (o "-" si no existe). La ruta D es la de
+  DijkstraAlgoritmo, la misma que muestra la interfaz (también con empates y
+  distancias negativas). Los árboles de cada origen se reutilizan mientras
+  las consultas seguidas tengan el mismo inicio, así que conviene agrupar
+  las consultas por origen. Al final se muestran en
+  la salida de error las consultas por segundo y los percentiles de latencia.
+  No usa ninguna clase de Swing.
+ */
+public class MainConsola {
+
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Uso: java MainConsola <grafo.txt|grafo.bin> [consultas.txt]");
+            System.err.println("     sin archivo de consultas se leen de la entrada estándar");
+            System.exit(2);
+        }
+
+        GraphView graph;
+        long t0 = System.nanoTime();
+        try {
+            graph = load(Paths.get(args[0]));
+        } catch (IOException | IllegalArgumentException ex) {
+            System.err.println("Error al cargar el grafo: " + ex.getMessage());
+            System.exit(1);
+            return;
+        }
+        long t1 = System.nanoTime();
+        System.err.printf("Grafo: %d nodos, %d aristas, cargado en %.1f ms%n",
+                graph.getN(), graph.getM(), (t1 - t0) / 1e6);
+
+        try (BufferedReader in = args.length == 2
+                ? Files.newBufferedReader(Paths.get(args[1]), StandardCharsets.UTF_8)
+                : new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(new BufferedWriter(
+                     new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16))) {
+            run(graph, in, out);
+        } catch (IOException ex) {
+            System.err.println("Error al leer las consultas: " + ex.getMessage());
+            System.exit(1);
+        }
+    }
+
+    //Archivo binario de MappedGraph si empieza con la magia, texto en otro caso
+    private static GraphView load(Path file) throws IOException {
+        byte[] head = new byte[4];
+        try (InputStream is = Files.newInputStream(file)) {
+            int read = is.readNBytes(head, 0, 4);
+            int magic = (head[0] & 0xFF) | (head[1] & 0xFF) << 8 | (head[2] & 0xFF) << 16 | (head[3] & 0xFF) << 24;
+            if (read == 4 && magic == MappedGraph.MAGIA) {
+                return MappedGraph.open(file);
+            }
+        }
+        return GraphLoader.load(file).freeze();
+    }
+
+    private static void run(GraphView graph, BufferedReader in, PrintWriter out) throws IOException {
+        int n = graph.getN();
+        DijkstraAlgoritmo dij = new DijkstraAlgoritmo(graph);
+        BellmanFordMax bf = new BellmanFordMax(graph);
+        int origenActual = -1; //Origen de los árboles que tienen dij y bf
+
+        long[] latencias = new long[1024];
+        int consultas = 0;
+        int errores = 0;
+        int lineNo = 0;
+        long inicioTotal = System.nanoTime();
+
+        String line;
+        StringBuilder sb = new StringBuilder();
+        while ((line = in.readLine()) != null) {
+            lineNo++;
+            String s = line.trim();
+            if (s.isEmpty() || s.startsWith("#")) continue;
+
+            String[] parts = s.split("\\s+");
+            int start;
+            int end;
+            try {
+                if (parts.length != 2) throw new NumberFormatException();
+                start = Integer.parseInt(parts[0]);
+                end = Integer.parseInt(parts[1]);
+            } catch (NumberFormatException ex) {
+                System.err.println("Línea " + lineNo + ": se esperaba \"inicio fin\"");
+                errores++;
+                continue;
+            }
+            if (start < 0 || start >= n || end < 0 || end >= n) {
+                System.err.println("Línea " + lineNo + ": nodo fuera de rango (0 a " + (n - 1) + ")");
+                errores++;
+                continue;
+            }
+
+            long q0 = System.nanoTime();
+            if (start != origenActual) {
+                dij.run(start);
+                bf.run(start);
+                origenActual = start;
+            }
+            List<Integer> dijPath = dij.getPath(end);
+            int dijDist = dij.getDistance(end);
+            int dijVictims = dij.countVictims(dijPath);
+
+            List<Integer> bfPath = bf.getPath(end);
+            int bfVictims = bf.getMaxVictima(end);
+            int bfDist = bf.calcDistancia(bfPath);
+            long q1 = System.nanoTime();
+
+            if (consultas == latencias.length) latencias = Arrays.copyOf(latencias, consultas * 2);
+            latencias[consultas++] = q1 - q0;
+
+            sb.setLength(0);
+            sb.append(start).append(' ').append(end);
+            appendRoute(sb.append(" D "), dijPath, dijDist, dijVictims);
+            appendRoute(sb.append(" B "), bfPath, bfDist, bfVictims);
+            out.println(sb);
+        }
+        out.flush();
+        long finTotal = System.nanoTime();
+
+        report(Arrays.copyOf(latencias, consultas), finTotal - inicioTotal, errores);
+    }
+
+    //"distancia víctimas camino", con -1 0 - si no hay camino
+    private static void appendRoute(StringBuilder sb, List<Integer> path, int dist, int victims) {
+        if (path.isEmpty()) {
+            sb.append("-1 0 -");
+            return;
+        }
+        sb.append(dist).append(' ').append(victims).append(' ');
+        for (int i = 0; i < path.size(); i++) {
+            if (i > 0) sb.append('-');
+            sb.append(path.get(i));
+        }
+    }
+
+    //Resumen en la salida de error para no mezclarlo con los resultados
+    private static void report(long[] latencias, long totalNanos, int errores) {
+        int q = latencias.length;
+        System.err.printf("Consultas: %d (%d líneas con error) en %.1f ms%n", q, errores, totalNanos / 1e6);
+        if (q == 0) return;
+        Arrays.sort(latencias);
+        System.err.printf("Rendimiento: %.1f consultas/s%n", q / (totalNanos / 1e9));
+        System.err.printf("Latencia (ms): p50 %.3f  p90 %.3f  p99 %.3f  máx %.3f%n",
+                percentil(latencias, 50), percentil(latencias, 90),
+                percentil(latencias, 99), latencias[q - 1] / 1e6);
+    }
+
+    //Percentil por el método del rango más cercano, en milisegundos
+    private static double percentil(long[] sorted, int p) {
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1e6;
+    }
+}
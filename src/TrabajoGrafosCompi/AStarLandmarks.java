@@ -0,0 +1,118 @@
+package TrabajoGrafosCompi;
+
+import java.util.*;
+
+/*
+  Consulta A* de un origen a un destino guiada por un LandmarkIndex (ALT).
+  La prioridad de cada nodo es g(v) + h(v), con h la cota de los landmarks,
+  así la búsqueda avanza hacia el destino en vez de crecer en círculo.
+  Como h es consistente, se puede parar en cuanto se saca el destino (por
+  eso LandmarkIndex no acepta grafos con distancias negativas).
+  El índice se construye una vez y se comparte; cada instancia de esta clase
+  es un espacio de trabajo reutilizable (no es seguro usar una desde varios hilos).
+ */
+public class AStarLandmarks {
+
+    private static final int INF = LandmarkIndex.INF;
+
+    private final LandmarkIndex index;
+    private final GraphView csr;
+
+    //g(v), padre y h(v) de la consulta actual; válidos si seen[v] == query
+    private final int[] dist;
+    private final int[] parent;
+    private final int[] heuristic;
+    private final int[] seen;
+    private int query;
+
+    private final IndexedMinHeap heap;
+
+    //Resultado de la última consulta
+    private int target = -1;
+    private boolean found;
+    private int settled;
+
+    public AStarLandmarks(LandmarkIndex index) {
+        this.index = index;
+        this.csr = index.getGraph();
+        int n = csr.getN();
+        dist = new int[n];
+        parent = new int[n];
+        heuristic = new int[n];
+        seen = new int[n];
+        heap = new IndexedMinHeap(n);
+    }
+
+    public void query(int start, int end) {
+        heap.clear();
+        query++;
+        if (query == 0) {
+            Arrays.fill(seen, 0);
+            query = 1;
+        }
+        target = end;
+        found = false;
+        settled = 0;
+
+        if (!open(start, 0, -1)) return;
+
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            settled++;
+            if (u == end) {
+                found = true;
+                return;
+            }
+            int du = dist[u];
+            for (int e = csr.firstEdge(u), last = csr.endEdge(u); e < last; e++) {
+                int v = csr.target(e);
+                int nd = du + csr.weight(e);
+                if (seen[v] != query) {
+                    open(v, nd, u);
+                } else if (nd < dist[v]) {
+                    dist[v] = nd;
+                    parent[v] = u;
+                    if (heuristic[v] != INF) heap.push(v, nd + heuristic[v]);
+                }
+            }
+        }
+    }
+
+    //Primera vez que se alcanza v: calcula h(v) y lo encola si el destino sigue siendo alcanzable
+    private boolean open(int v, int d, int p) {
+        seen[v] = query;
+        dist[v] = d;
+        parent[v] = p;
+        int h = index.lowerBound(v, target);
+        heuristic[v] = h;
+        if (h == INF) return false;
+        heap.push(v, d + h);
+        return true;
+    }
+
+    //Camino más corto de la última consulta, vacío si no existe
+    public List<Integer> getPath() {
+        List<Integer> path = new ArrayList<>();
+        if (!found) return path; // Sin camino
+
+        for (int cur = target; cur != -1; cur = parent[cur]) {
+            path.add(cur);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    //Distancia de la última consulta, -1 si no hay camino
+    public int getDistance() {
+        return found ? dist[target] : -1;
+    }
+
+    public int countVictims(List<Integer> path) {
+        return csr.pathVictims(path);
+    }
+
+    //Nodos sacados de la cola en la última consulta
+    public int getSettled() {
+        return settled;
+    }
+}
@@ -0,0 +1,54 @@
+package TrabajoGrafosCompi;
+
+/*
+  Aristas en orden de inserción como arreglos paralelos (struct of arrays):
+  src[i], dst[i] y w[i] son el origen, destino y distancia de la i-ésima
+  arista. Además guarda las víctimas del destino de cada arista, que es lo
+  único que suma Bellman-Ford, para leerlas de corrido en vez de saltar por
+  victims(v). Se arma una vez por grafo a partir de cualquier GraphView
+  (CsrGraph, MappedGraph u OffHeapGraph) y se recorre sin llamadas a la interfaz.
+ */
+final class AristasSoA {
+
+    final int m;
+    final int[] src;
+    final int[] dst;
+    final int[] w;
+    final int[] victimasDestino;
+
+    AristasSoA(GraphView g) {
+        m = g.getM();
+        src = new int[m];
+        dst = new int[m];
+        w = new int[m];
+        victimasDestino = new int[m];
+        for (int i = 0; i < m; i++) {
+            src[i] = g.edgeFrom(i);
+            dst[i] = g.edgeTo(i);
+            w[i] = g.edgeWeight(i);
+            victimasDestino[i] = g.victims(dst[i]);
+        }
+    }
+
+    /*
+      Relaja las aristas [desde, hasta) en orden, igual que una pasada de
+      BellmanFordMax en modo PASADAS (cada arista ve lo que cambiaron las
+      anteriores). Retorna cuántas aristas mejoraron un valor.
+     */
+    int relajar(int desde, int hasta, int[] maxVictimas, int[] padre) {
+        int mejoras = 0;
+        for (int e = desde; e < hasta; e++) {
+            int u = src[e];
+            int mu = maxVictimas[u];
+            if (mu < 0) continue;
+            int nuevasVictimas = mu + victimasDestino[e];
+            int v = dst[e];
+            if (nuevasVictimas > maxVictimas[v]) {
+                maxVictimas[v] = nuevasVictimas;
+                padre[v] = u;
+                mejoras++;
+            }
+        }
+        return mejoras;
+    }
+}
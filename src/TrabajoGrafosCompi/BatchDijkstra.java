@@ -0,0 +1,98 @@
+package TrabajoGrafosCompi;
+
+import java.util.concurrent.*;
+
+/*
+  Dijkstra desde muchos orígenes a la vez (por ejemplo, de cada aldea a cada
+  guarida) repartido en un ForkJoinPool. Cada hilo trabajador tiene su propio
+  DijkstraAlgoritmo como espacio de trabajo, así que dist[]/parent[] y la cola
+  se reutilizan de un origen al siguiente en vez de crearse cada vez.
+ */
+public class BatchDijkstra {
+
+    /*
+      Recibe el resultado de un origen. Los arreglos son el espacio de trabajo del
+      hilo: solo son válidos durante la llamada (copiarlos si se necesitan después).
+      Se puede llamar desde varios hilos al mismo tiempo.
+     */
+    public interface SourceResult {
+        void accept(int source, int[] dist, int[] parent);
+    }
+
+    private final GraphView csr;
+    private final ForkJoinPool pool;
+
+    //Un espacio de trabajo por hilo del pool
+    private final ThreadLocal<DijkstraAlgoritmo> workspace;
+
+    public BatchDijkstra(Graph graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    public BatchDijkstra(Graph graph, ForkJoinPool pool) {
+        this(graph.freeze(), pool);
+    }
+
+    public BatchDijkstra(GraphView csr, ForkJoinPool pool) {
+        this.csr = csr;
+        this.pool = pool;
+        this.workspace = ThreadLocal.withInitial(() -> new DijkstraAlgoritmo(csr));
+    }
+
+    /*
+      Corre Dijkstra desde cada origen y entrega cada resultado al callback.
+      dist[v] == Integer.MAX_VALUE indica que v no es alcanzable.
+     */
+    public void forEachSource(int[] sources, SourceResult callback) {
+        pool.invoke(new SourceTask(sources, 0, sources.length,
+                (i, dist, parent) -> callback.accept(sources[i], dist, parent)));
+    }
+
+    /*
+      Matriz de distancias: matrix[i][j] = distancia de sources[i] a targets[j],
+      o -1 si no hay camino (igual que DijkstraAlgoritmo.getDistance).
+     */
+    public int[][] distanceMatrix(int[] sources, int[] targets) {
+        int[][] matrix = new int[sources.length][targets.length];
+        //Cada fila la escribe un solo hilo, así que no hace falta sincronizar
+        pool.invoke(new SourceTask(sources, 0, sources.length, (i, dist, parent) -> {
+            int[] row = matrix[i];
+            for (int j = 0; j < targets.length; j++) {
+                int d = dist[targets[j]];
+                row[j] = d == Integer.MAX_VALUE ? -1 : d;
+            }
+        }));
+        return matrix;
+    }
+
+    //Divide el rango de orígenes hasta que cada tarea tiene uno solo
+    private final class SourceTask extends RecursiveAction {
+        private final int[] sources;
+        private final int lo;
+        private final int hi;
+
+        //Recibe la posición del origen dentro de sources[]
+        private final SourceResult sink;
+
+        SourceTask(int[] sources, int lo, int hi, SourceResult sink) {
+            this.sources = sources;
+            this.lo = lo;
+            this.hi = hi;
+            this.sink = sink;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new SourceTask(sources, lo, mid, sink),
+                        new SourceTask(sources, mid, hi, sink));
+                return;
+            }
+            if (hi == lo) return;
+            DijkstraAlgoritmo dij = workspace.get();
+            dij.run(sources[lo]);
+            sink.accept(lo, dij.getDistances(), dij.getParents());
+        }
+    }
+}
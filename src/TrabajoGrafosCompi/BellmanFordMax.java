@@ -1,24 +1,103 @@
 package TrabajoGrafosCompi;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public class BellmanFordMax {
+
+    /*
+      PASADAS: Bellman-Ford clásico, hasta n-1 pasadas sobre todas las aristas.
+      COLA: lista de trabajo (SPFA), solo relaja las aristas salientes de los
+      nodos cuyo maxVictimas mejoró. Cuando converge (no hay ciclos con
+      víctimas) da los mismos maxVictimas que PASADAS, pero entre aristas que
+      empatan el padre puede ser otro, así que getPath puede devolver otro
+      camino con las mismas víctimas. Si llega a n-1 rondas sin vaciar la
+      cola, repite todo con PASADAS y entonces valores y caminos son idénticos.
+      PARALELO: pasadas estilo Jacobi repartidas en un ForkJoinPool (ver runParalelo).
+      VECTORIAL: las mismas pasadas que PASADAS (mismos valores y padres) sobre
+      AristasSoA, con RelajacionVectorial si la Vector API está disponible.
+     */
+    public enum Modo { PASADAS, COLA, PARALELO, VECTORIAL }
+
+    /*
+      La Vector API es un módulo incubado: hay que compilar y correr con
+      --add-modules jdk.incubator.vector. Sin el módulo (o con
+      -Dgrafos.vector=false) el modo VECTORIAL usa el mismo recorrido en escalar.
+     */
+    public static final boolean VECTOR_DISPONIBLE = !"false".equals(System.getProperty("grafos.vector"))
+            && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    //Aristas entrantes mínimas por parte en modo PARALELO; con menos no conviene repartir
+    private static final int MIN_ARISTAS_PARTE = 8192;
+
     private final Graph graph;
 
+    private Modo modo = Modo.PASADAS;
+
     //Máximas victimas acumuladas llegando a cada nodo
     private int[] maxVictimas;
 
     //Padre de cada nodo en el camino de más victimas
     private int[] padre;
 
+    //Grafo compacto usado en la última ejecución
+    private GraphView csr;
+
+    //true si la última ejecución llegó a un punto fijo antes del límite de n-1 rondas
+    private boolean convergio;
+
+    //Pasadas (o rondas) y aristas examinadas en la última ejecución, para Metricas
+    private int pasadas;
+    private long relajaciones;
+
+    //Cola circular y marcas del modo COLA, se reutilizan entre ejecuciones
+    private int[] cola;
+    private boolean[] enCola;
+
+    //Aviso de avance y cancelación por pasada o ronda, null si no se pidió
+    private Progreso progreso;
+
+    //Modo PARALELO: pool, arreglos de la pasada siguiente y límites de cada parte
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private int[] siguiente;
+    private int[] padreSiguiente;
+
+    /*
+      Nodos a recalcular en esta pasada y en la siguiente: los que tienen algún
+      vecino entrante que cambió en la pasada anterior. Los demás darían el
+      mismo valor, así que solo se copian.
+     */
+    private boolean[] activo;
+    private boolean[] activoSiguiente;
+    private GraphView cortesDe;
+    private int[] cortes;
+
+    //Modo VECTORIAL: aristas como arreglos paralelos, armadas una vez por grafo
+    private AristasSoA soa;
+    private GraphView soaDe;
+
     public BellmanFordMax(Graph graph) {
         this.graph = graph;
     }
 
+    //Ejecuta sobre un grafo fijo (por ejemplo, un MappedGraph abierto de disco)
+    public BellmanFordMax(GraphView csr) {
+        this.graph = null;
+        this.csr = csr;
+    }
+
     public void run(int inicio) {
-        int n = graph.getN();
-        maxVictimas = new int[n];
-        padre = new int[n];
+        Metricas.EventoBellmanFord evento = Metricas.ACTIVAS ? Metricas.inicioBellmanFord() : null;
+        long t0 = Metricas.ACTIVAS ? System.nanoTime() : 0;
+
+        if (graph != null) csr = graph.freeze();
+        int n = csr.getN();
+        //Los arreglos se reutilizan si el tamaño no cambió
+        if (maxVictimas == null || maxVictimas.length != n) {
+            maxVictimas = new int[n];
+            padre = new int[n];
+        }
 
         Arrays.fill(maxVictimas, -1); //-1 es nodo no alcanzado
         Arrays.fill(padre, -1);
@@ -27,19 +106,56 @@ public class BellmanFordMax {
         // Según el problema, las víctimas están en el nodo v (destino de arista)
         // El origen no aporta víctimas inicialmente
         maxVictimas[inicio] = 0;
+        convergio = false;
+        pasadas = 0;
+        relajaciones = 0;
+        long t1 = Metricas.ACTIVAS ? System.nanoTime() : 0;
+
+        if (modo == Modo.COLA) {
+            runCola(inicio);
+            /*
+              Con un ciclo con víctimas alcanzable, cortar en la ronda n-1 de
+              la cola no deja los mismos valores que n-1 pasadas en orden de
+              inserción: se rehace desde cero con las pasadas.
+             */
+            if (!convergio) {
+                Arrays.fill(maxVictimas, -1);
+                Arrays.fill(padre, -1);
+                maxVictimas[inicio] = 0;
+                runPasadas();
+            }
+        } else if (modo == Modo.PARALELO) {
+            runParalelo();
+        } else if (modo == Modo.VECTORIAL) {
+            runVectorial();
+        } else {
+            runPasadas();
+        }
+        if (progreso != null) progreso.avisar(n, n);
+
+        if (Metricas.ACTIVAS) {
+            Metricas.bellmanFord(evento, inicio, modo, pasadas, relajaciones, convergio, t0, t1, System.nanoTime());
+        }
+    }
 
+    private void runPasadas() {
+        int n = csr.getN();
+        int m = csr.getM();
         //n-1 veces las aristas (Se aplica Bellman-Ford estandar pero maximizado
         for (int i = 1; i < n; i++) {
+            pasadas = i;
+            //Total estimado: el peor caso de n-1 pasadas (al converger salta al final)
+            if (progreso != null) progreso.avisar(i - 1, n - 1);
             boolean updated = false;
-            for (int[] edge : graph.getEdges()) {
-                int u = edge[0];
-                int v = edge[1];
+            for (int e = 0; e < m; e++) {
+                int u = csr.edgeFrom(e);
+                int v = csr.edgeTo(e);
                 //Solo procesamos si u es alcanzable
                 if (maxVictimas[u] < 0) continue;
 
                 //Victimas del nodo v (solo si no fue visitado en este camino)
                 //Aproximación: sumamos victimas de v si el padre no es el mismo nodo
-                int victimasV = graph.getVictimas()[v];
+                int victimasV = csr.victims(v);
 
                 //Calculamos las victimas acumuladas llegando a v por este camino
                 int nuevasVictimas = maxVictimas[u] + victimasV;
@@ -50,10 +166,292 @@ public class BellmanFordMax {
                     updated = true;
                 }
             }
+            if (Metricas.ACTIVAS) relajaciones += m;
             //Optimización: si no hubo actualizaciones, terminamos
-            if (!updated) break;
+            if (!updated) {
+                convergio = true;
+                break;
+            }
+
+        }
+    }
+
+    /*
+      Como runPasadas, pero cada pasada recorre AristasSoA. La pasada vectorial
+      solo conviene cuando casi todos los bloques se descartan enteros; si la
+      pasada anterior mejoró muchas aristas (por ejemplo, ciclos con víctimas
+      que siguen creciendo) la siguiente se hace en escalar.
+     */
+    private void runVectorial() {
+        int n = csr.getN();
+        int m = csr.getM();
+        if (soaDe != csr) {
+            soa = new AristasSoA(csr);
+            soaDe = csr;
+        }
+        boolean vectorial = VECTOR_DISPONIBLE;
+        for (int i = 1; i < n; i++) {
+            pasadas = i;
+            if (progreso != null) progreso.avisar(i - 1, n - 1);
+            int mejoras = vectorial
+                    ? RelajacionVectorial.pasada(soa, maxVictimas, padre)
+                    : soa.relajar(0, m, maxVictimas, padre);
+            if (Metricas.ACTIVAS) relajaciones += m;
+            if (mejoras == 0) {
+                convergio = true;
+                break;
+            }
+            //Cada mejora ensucia a lo sumo un bloque: con menos de un cuarto sucios, vectorial
+            vectorial = VECTOR_DISPONIBLE && (long) mejoras * RelajacionVectorial.ANCHO * 4 < m;
+        }
+    }
+
+    /*
+      Versión con lista de trabajo: una cola FIFO de nodos cuyo valor mejoró,
+      con una marca para no encolar el mismo nodo dos veces. La cola se procesa
+      por rondas (los nodos mejorados en la ronda r se relajan en la ronda r+1);
+      igual que las n-1 pasadas, después de n-1 rondas paramos, lo que corta
+      los ciclos con víctimas (y run() repite con runPasadas).
+      El padre queda en la primera arista que dio el valor final en el orden
+      de la cola, no en el de inserción como en runPasadas: con empates puede
+      ser otro nodo. Elegir después el padre por orden de inserción no sirve,
+      porque entre nodos sin víctimas que empatan podría armar un ciclo de padres.
+     */
+    private void runCola(int inicio) {
+        int n = csr.getN();
+        if (cola == null || cola.length != n) {
+            cola = new int[n];
+            enCola = new boolean[n];
+        } else {
+            Arrays.fill(enCola, false);
+        }
+        int head = 0;
+        int size = 1;
+        cola[0] = inicio;
+        enCola[inicio] = true;
+
+        for (int ronda = 1; ronda < n && size > 0; ronda++) {
+            pasadas = ronda;
+            if (progreso != null) progreso.avisar(ronda - 1, n - 1);
+            //Solo los nodos que ya estaban en la cola forman esta ronda
+            int enRonda = size;
+            for (int k = 0; k < enRonda; k++) {
+                int u = cola[head];
+                head = head + 1 == n ? 0 : head + 1;
+                size--;
+                enCola[u] = false;
+
+                int mu = maxVictimas[u];
+                if (Metricas.ACTIVAS) relajaciones += csr.endEdge(u) - csr.firstEdge(u);
+                for (int e = csr.firstEdge(u), end = csr.endEdge(u); e < end; e++) {
+                    int v = csr.target(e);
+                    int nuevasVictimas = mu + csr.victims(v);
+                    if (nuevasVictimas > maxVictimas[v]) {
+                        maxVictimas[v] = nuevasVictimas;
+                        padre[v] = u;
+                        if (!enCola[v]) {
+                            enCola[v] = true;
+                            int tail = head + size;
+                            cola[tail >= n ? tail - n : tail] = v;
+                            size++;
+                        }
+                    }
+                }
+            }
+        }
+        convergio = size == 0;
+    }
+
+    /*
+      Pasadas estilo Jacobi: cada pasada calcula los valores nuevos solo a
+      partir de los de la pasada anterior (dos juegos de arreglos que se
+      intercambian). Las aristas se reparten por destino usando el grafo
+      transpuesto, así que cada nodo v lo escribe una sola parte y no hace
+      falta sincronizar nada más que la barrera al final de cada pasada.
+
+      Como ningún valor depende del orden en que corren las partes, el
+      resultado es el mismo con cualquier cantidad de hilos. Entre varias
+      aristas entrantes que empatan gana la primera en orden de inserción
+      (el transpuesto las guarda en ese orden), y el padre solo cambia si el
+      valor mejora, igual que en PASADAS.
+
+      Si el algoritmo converge (sin ciclos con víctimas) los valores son los
+      mismos que en PASADAS y COLA; el padre puede ser otro nodo que empata.
+      Jacobi suele necesitar más pasadas que PASADAS (una por arista del
+      camino más largo), pero cada pasada se reparte entre todos los núcleos.
+     */
+    private void runParalelo() {
+        int n = csr.getN();
+        int m = csr.getM();
+        GraphView rev = csr.reverse();
+        if (siguiente == null || siguiente.length != n) {
+            siguiente = new int[n];
+            padreSiguiente = new int[n];
+            activo = new boolean[n];
+            activoSiguiente = new boolean[n];
+        } else {
+            Arrays.fill(activo, false);
+            Arrays.fill(activoSiguiente, false);
+        }
+        //En la primera pasada solo puede cambiar lo que sale del origen
+        for (int v = 0; v < n; v++) {
+            if (maxVictimas[v] >= 0) activarVecinos(v, activo);
+        }
+        int partes = Math.max(1, Math.min(4 * pool.getParallelism(), m / MIN_ARISTAS_PARTE));
+        if (cortesDe != rev || cortes.length != partes + 1) {
+            cortes = cortar(rev, partes);
+            cortesDe = rev;
+        }
+        boolean[] cambios = new boolean[partes];
+        if (partes == 1) {
+            pasadasJacobi(rev, cambios);
+        } else {
+            //Todas las pasadas corren dentro del pool: cada barrera es un invokeAll entre trabajadores
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    pasadasJacobi(rev, cambios);
+                }
+            });
+        }
+    }
+
+    private void pasadasJacobi(GraphView rev, boolean[] cambios) {
+        int n = csr.getN();
+        int m = csr.getM();
+        int partes = cambios.length;
+        for (int i = 1; i < n; i++) {
+            pasadas = i;
+            if (progreso != null) progreso.avisar(i - 1, n - 1);
+            if (partes == 1) {
+                cambios[0] = pasadaJacobi(rev, 0, n);
+            } else {
+                new PasadaParalela(rev, 0, partes, cambios).invoke();
+            }
+            if (Metricas.ACTIVAS) relajaciones += m;
+
+            //Barrera: la pasada siguiente lee lo que esta escribió
+            int[] t = maxVictimas;
+            maxVictimas = siguiente;
+            siguiente = t;
+            t = padre;
+            padre = padreSiguiente;
+            padreSiguiente = t;
+            //pasadaJacobi dejó activo en false: pasa a ser el de la pasada siguiente
+            boolean[] a = activo;
+            activo = activoSiguiente;
+            activoSiguiente = a;
+
+            boolean updated = false;
+            for (boolean c : cambios) updated |= c;
+            if (!updated) {
+                convergio = true;
+                break;
+            }
+        }
+    }
 
+    //Calcula los valores nuevos de los nodos [desde, hasta); true si alguno cambió
+    private boolean pasadaJacobi(GraphView rev, int desde, int hasta) {
+        int[] viejo = maxVictimas;
+        int[] padreViejo = padre;
+        boolean updated = false;
+        for (int v = desde; v < hasta; v++) {
+            if (!activo[v]) {
+                siguiente[v] = viejo[v];
+                padreSiguiente[v] = padreViejo[v];
+                continue;
+            }
+            activo[v] = false;
+            int mejor = viejo[v];
+            int p = padreViejo[v];
+            int victimasV = rev.victims(v);
+            for (int e = rev.firstEdge(v), end = rev.endEdge(v); e < end; e++) {
+                int u = rev.target(e);
+                if (viejo[u] < 0) continue;
+                int nuevasVictimas = viejo[u] + victimasV;
+                if (nuevasVictimas > mejor) {
+                    mejor = nuevasVictimas;
+                    p = u;
+                }
+            }
+            siguiente[v] = mejor;
+            padreSiguiente[v] = p;
+            if (mejor != viejo[v]) {
+                updated = true;
+                //Varias partes pueden marcar el mismo nodo: todas escriben true
+                activarVecinos(v, activoSiguiente);
+            }
+        }
+        return updated;
+    }
+
+    private void activarVecinos(int u, boolean[] marcas) {
+        for (int e = csr.firstEdge(u), end = csr.endEdge(u); e < end; e++) {
+            marcas[csr.target(e)] = true;
+        }
+    }
+
+    //Límites de las partes: rangos de nodos con aproximadamente las mismas aristas entrantes
+    private static int[] cortar(GraphView rev, int partes) {
+        int n = rev.getN();
+        int[] res = new int[partes + 1];
+        //Cada nodo cuenta como una arista más, para repartir bien los nodos sin entrantes
+        long total = (long) rev.getM() + n;
+        long acumulado = 0;
+        int parte = 1;
+        for (int v = 0; v < n && parte < partes; v++) {
+            acumulado += rev.endEdge(v) - rev.firstEdge(v) + 1;
+            while (parte < partes && acumulado >= total * parte / partes) {
+                res[parte++] = v + 1;
+            }
         }
+        while (parte <= partes) res[parte++] = n;
+        return res;
+    }
+
+    //Divide las partes [lo, hi) hasta que cada tarea tiene una sola
+    private final class PasadaParalela extends RecursiveAction {
+        private final GraphView rev;
+        private final int lo;
+        private final int hi;
+        private final boolean[] cambios;
+
+        PasadaParalela(GraphView rev, int lo, int hi, boolean[] cambios) {
+            this.rev = rev;
+            this.lo = lo;
+            this.hi = hi;
+            this.cambios = cambios;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new PasadaParalela(rev, lo, mid, cambios),
+                        new PasadaParalela(rev, mid, hi, cambios));
+                return;
+            }
+            cambios[lo] = pasadaJacobi(rev, cortes[lo], cortes[lo + 1]);
+        }
+    }
+
+    public void setModo(Modo modo) {
+        this.modo = modo;
+    }
+
+    public Modo getModo() {
+        return modo;
+    }
+
+    //Pool para el modo PARALELO (por defecto ForkJoinPool.commonPool())
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    //Progreso a avisar en cada pasada, o null; si pide cancelar run() lanza CancellationException
+    public void setProgreso(Progreso progreso) {
+        this.progreso = progreso;
     }
 
     public List<Integer> getPath(int fin) {
@@ -64,7 +462,7 @@ public class BellmanFordMax {
         for (int cur = fin; cur != -1; cur = padre[cur]) {
             path.add(cur);
             //Seguridad: evitar ciclos infinitos
-            if (path.size() > graph.getN()) break;
+            if (path.size() > padre.length) break;
         }
         Collections.reverse(path); // estaba al revés, lo volteamos
         return path;
@@ -76,21 +474,23 @@ public class BellmanFordMax {
         return maxVictimas[fin];
     }
 
+    //Arreglos de la última ejecución (son el espacio de trabajo, no copias)
+    int[] getMaxVictimas() {
+        return maxVictimas;
+    }
+
+    int[] getPadres() {
+        return padre;
+    }
+
+    //Sin ciclos con víctimas alcanzables los valores son exactos (no dependen del corte)
+    boolean convergio() {
+        return convergio;
+    }
+
     //Calculamos la distancia total de un camino dado
     public int calcDistancia(List<Integer> path) {
         if (path.size() < 2) return 0;
-        int total = 0;
-        List<List<int[]>> adj = graph.getAdj();
-        for (int i = 0; i < path.size() - 1; i++) {
-            int u = path.get(i);
-            int v = path.get(i + 1);
-            for (int[] edge : adj.get(u)) {
-                if (edge[0] == v) {
-                    total += edge[1];
-                    break;
-                }
-            }
-        }
-        return total;
+        return (csr != null ? csr : graph.freeze()).pathDistance(path);
     }
 }
@@ -0,0 +1,240 @@
+package TrabajoGrafosCompi;
+
+import java.util.*;
+
+/*
+  Guarda los árboles de caminos por origen (dist/parent de Dijkstra y
+  maxVictimas/padre de BellmanFordMax) para no volver a correr los algoritmos
+  cuando solo cambia el destino. La clave es (algoritmo, origen, versión del
+  grafo): si el grafo cambia, su versión cambia y los resultados viejos ya no
+  se encuentran (terminan saliendo por LRU).
+  El tamaño se limita por memoria (8 bytes por nodo y resultado) y se
+  descarta el resultado usado hace más tiempo.
+ */
+public class CacheCaminos {
+
+    public enum Algoritmo { DIJKSTRA, BELLMAN_FORD }
+
+    //Bytes fijos que se cuentan por resultado además de los arreglos
+    private static final long SOBRECARGA = 96;
+
+    /*
+      Resultado de un origen. valor(v) es la distancia (Dijkstra) o las
+      máximas víctimas (Bellman-Ford) llegando a v, -1 si no es alcanzable.
+     */
+    public static final class Arbol {
+        private final int origen;
+        private final int[] valores;
+        private final int[] padres;
+
+        //Valor que marca un nodo no alcanzado (Integer.MAX_VALUE en Dijkstra, -1 en Bellman-Ford)
+        private final int sinCamino;
+
+        Arbol(int origen, int[] valores, int[] padres, int sinCamino) {
+            this.origen = origen;
+            this.valores = valores;
+            this.padres = padres;
+            this.sinCamino = sinCamino;
+        }
+
+        public int getOrigen() {
+            return origen;
+        }
+
+        public int valor(int v) {
+            return valores[v] == sinCamino ? -1 : valores[v];
+        }
+
+        public boolean alcanzable(int v) {
+            return valores[v] != sinCamino;
+        }
+
+        //Camino desde el origen hasta fin siguiendo los padres, vacío si no hay
+        public List<Integer> getPath(int fin) {
+            List<Integer> path = new ArrayList<>();
+            if (valores[fin] == sinCamino) return path;
+            for (int cur = fin; cur != -1; cur = padres[cur]) {
+                path.add(cur);
+                //Seguridad: evitar ciclos infinitos (igual que BellmanFordMax)
+                if (path.size() > padres.length) break;
+            }
+            Collections.reverse(path);
+            return path;
+        }
+
+        long bytes() {
+            return SOBRECARGA + 8L * valores.length;
+        }
+    }
+
+    private static final class Clave {
+        final Algoritmo algoritmo;
+        final int origen;
+        final long version;
+
+        Clave(Algoritmo algoritmo, int origen, long version) {
+            this.algoritmo = algoritmo;
+            this.origen = origen;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Clave)) return false;
+            Clave k = (Clave) o;
+            return algoritmo == k.algoritmo && origen == k.origen && version == k.version;
+        }
+
+        @Override
+        public int hashCode() {
+            return (algoritmo.ordinal() * 31 + origen) * 31 + Long.hashCode(version);
+        }
+    }
+
+    private final long maxBytes;
+    private long bytes;
+
+    //En orden de acceso: el primero es el usado hace más tiempo
+    private final LinkedHashMap<Clave, Arbol> entradas = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long aciertos;
+    private long fallos;
+    private long descartes;
+
+    /*
+      Espacios de trabajo para calcular los resultados que faltan, uno por
+      algoritmo y cada uno con su propio candado: un Dijkstra y un
+      Bellman-Ford que faltan se pueden calcular a la vez desde dos hilos.
+      El mapa se bloquea solo para buscar y guardar, no durante el cálculo.
+     */
+    private final Espacio<DijkstraAlgoritmo> dijkstra = new Espacio<>();
+    private final Espacio<BellmanFordMax> bellmanFord = new Espacio<>();
+
+    private static final class Espacio<A> {
+        Graph graph;
+        A algoritmo;
+    }
+
+    public CacheCaminos(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public Arbol dijkstra(Graph graph, int origen) {
+        return get(graph, Algoritmo.DIJKSTRA, origen, null);
+    }
+
+    public Arbol bellmanFord(Graph graph, int origen) {
+        return get(graph, Algoritmo.BELLMAN_FORD, origen, null);
+    }
+
+    //Igual, avisando el avance del cálculo si falta (ver Progreso)
+    public Arbol dijkstra(Graph graph, int origen, Progreso progreso) {
+        return get(graph, Algoritmo.DIJKSTRA, origen, progreso);
+    }
+
+    public Arbol bellmanFord(Graph graph, int origen, Progreso progreso) {
+        return get(graph, Algoritmo.BELLMAN_FORD, origen, progreso);
+    }
+
+    public Arbol get(Graph graph, Algoritmo algoritmo, int origen) {
+        return get(graph, algoritmo, origen, null);
+    }
+
+    /*
+      Si el progreso pide cancelar se propaga la CancellationException y no
+      se guarda nada.
+     */
+    public Arbol get(Graph graph, Algoritmo algoritmo, int origen, Progreso progreso) {
+        Clave clave = new Clave(algoritmo, origen, graph.getVersion());
+        synchronized (this) {
+            Arbol arbol = entradas.get(clave);
+            if (arbol != null) {
+                aciertos++;
+                return arbol;
+            }
+            fallos++;
+        }
+        Arbol arbol = algoritmo == Algoritmo.DIJKSTRA
+                ? computeDijkstra(graph, origen, progreso)
+                : computeBellmanFord(graph, origen, progreso);
+        long tam = arbol.bytes();
+        if (tam > maxBytes) return arbol; //No cabe: se entrega sin guardarlo
+        synchronized (this) {
+            //Otro hilo pudo calcular la misma clave mientras tanto: se queda el primero
+            Arbol previo = entradas.putIfAbsent(clave, arbol);
+            if (previo != null) return previo;
+            bytes += tam;
+            evict();
+        }
+        return arbol;
+    }
+
+    private Arbol computeDijkstra(Graph graph, int origen, Progreso progreso) {
+        synchronized (dijkstra) {
+            if (dijkstra.graph != graph) {
+                dijkstra.graph = graph;
+                dijkstra.algoritmo = new DijkstraAlgoritmo(graph);
+            }
+            DijkstraAlgoritmo d = dijkstra.algoritmo;
+            d.setProgreso(progreso);
+            try {
+                d.run(origen);
+            } finally {
+                d.setProgreso(null);
+            }
+            return new Arbol(origen, d.getDistances().clone(), d.getParents().clone(), Integer.MAX_VALUE);
+        }
+    }
+
+    private Arbol computeBellmanFord(Graph graph, int origen, Progreso progreso) {
+        synchronized (bellmanFord) {
+            if (bellmanFord.graph != graph) {
+                bellmanFord.graph = graph;
+                bellmanFord.algoritmo = new BellmanFordMax(graph);
+            }
+            BellmanFordMax bf = bellmanFord.algoritmo;
+            bf.setProgreso(progreso);
+            try {
+                bf.run(origen);
+            } finally {
+                bf.setProgreso(null);
+            }
+            return new Arbol(origen, bf.getMaxVictimas().clone(), bf.getPadres().clone(), -1);
+        }
+    }
+
+    //Descarta los menos usados hasta volver a estar bajo el límite
+    private void evict() {
+        Iterator<Arbol> it = entradas.values().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            bytes -= it.next().bytes();
+            it.remove();
+            descartes++;
+        }
+    }
+
+    public synchronized void clear() {
+        entradas.clear();
+        bytes = 0;
+    }
+
+    public synchronized long getAciertos() {
+        return aciertos;
+    }
+
+    public synchronized long getFallos() {
+        return fallos;
+    }
+
+    public synchronized long getDescartes() {
+        return descartes;
+    }
+
+    public synchronized int size() {
+        return entradas.size();
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+}
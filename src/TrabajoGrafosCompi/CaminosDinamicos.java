@@ -0,0 +1,488 @@
+package TrabajoGrafosCompi;
+
+import java.util.*;
+
+/*
+  Resultados de Dijkstra y de BellmanFordMax desde un origen fijo que se
+  mantienen al día mientras el grafo cambia (aristas nuevas o distancias
+  nuevas), sin volver a correr todo:
+    - Distancia que baja (o arista nueva): se propaga la mejora desde el
+      destino de la arista con un Dijkstra que solo toca los nodos que mejoran.
+    - Distancia que sube (estilo Ramalingam-Reps): si la arista estaba en el
+      árbol de caminos, se toma el subárbol que cuelga de ella, se calcula la
+      mejor entrada de cada nodo desde fuera del subárbol y se corre Dijkstra
+      solo sobre esos nodos.
+    - Máximas víctimas: las aristas nuevas y los aumentos de víctimas se
+      propagan por rondas como en el modo COLA de BellmanFordMax; si las
+      víctimas de un nodo bajan, se invalida su subárbol de padre[] igual que
+      en el caso de la distancia que sube.
+  Si no se puede reparar (distancias negativas, ciclos con víctimas) se
+  recalcula todo, así que los valores siempre son los mismos que daría una
+  ejecución completa; entre caminos empatados puede quedar otro.
+  Los cambios se hacen a través de esta clase para que el Graph y los
+  resultados queden sincronizados.
+ */
+public class CaminosDinamicos {
+
+    private static final int INF = Integer.MAX_VALUE;
+
+    private final Graph graph;
+    private final int origen;
+    private final int n;
+
+    //Adyacencia del último freeze y su transpuesta
+    private CsrGraph base;
+    private CsrGraph baseRev;
+    private int baseM;
+
+    //Aristas agregadas después del freeze, en listas enlazadas por nodo (k = arista - baseM)
+    private int[] extraHeadOut;
+    private int[] extraHeadIn;
+    private int[] extraNextOut;
+    private int[] extraNextIn;
+    private int[] extraFrom;
+    private int[] extraTo;
+    private int extraCount;
+
+    //Distancia actual de cada arista (por índice de inserción) y víctimas por nodo
+    private int[] peso;
+    private int[] victimas;
+
+    //Aristas con distancia negativa: con alguna, Dijkstra no se puede reparar
+    private int negativas;
+
+    //Árbol de caminos más cortos
+    private final int[] dist;
+    private final int[] parent;
+    private final IndexedMinHeap heap;
+
+    //Nodos del subárbol afectado por un aumento
+    private final int[] afectados;
+    private final boolean[] marcado;
+
+    //Árbol de máximas víctimas; bfExacto indica que la última ejecución convergió
+    private final int[] maxVictimas;
+    private final int[] padre;
+    private boolean bfExacto;
+    private final int[] cola;
+    private final boolean[] enCola;
+
+    //Algoritmos completos para la carga inicial y los recálculos
+    private final DijkstraAlgoritmo dijkstra;
+    private final BellmanFordMax bellmanFord;
+
+    private long reparaciones;
+    private long recalculos;
+
+    public CaminosDinamicos(Graph graph, int origen) {
+        this.graph = graph;
+        this.origen = origen;
+        this.n = graph.getN();
+        dist = new int[n];
+        parent = new int[n];
+        heap = new IndexedMinHeap(n);
+        afectados = new int[n];
+        marcado = new boolean[n];
+        maxVictimas = new int[n];
+        padre = new int[n];
+        cola = new int[n];
+        enCola = new boolean[n];
+        extraHeadOut = new int[n];
+        extraHeadIn = new int[n];
+        dijkstra = new DijkstraAlgoritmo(graph);
+        bellmanFord = new BellmanFordMax(graph);
+        rebuild();
+        recomputeDijkstra();
+        recomputeBellmanFord();
+    }
+
+    /*
+      Agrega la arista al Graph y repara ambos resultados.
+      Retorna su índice de inserción (para usarlo con setWeight).
+     */
+    public int addEdge(int u, int v, int d, int c) {
+        int antes = victimas[v];
+        graph.addEdge(u, v, d, c);
+        int i = graph.getM() - 1;
+        appendExtra(i, u, v, d);
+        victimas[v] = c;
+        //Con muchas aristas sueltas conviene volver a compactar (no cambia los resultados)
+        if (extraCount > Math.max(1024, baseM / 4)) rebuild();
+
+        if (negativas > 0) {
+            recomputeDijkstra();
+        } else {
+            decrease(u, v, d);
+        }
+        repairBellmanFord(u, v, c - antes);
+        return i;
+    }
+
+    //Cambia la distancia de la i-ésima arista y repara las distancias
+    public void setWeight(int i, int d) {
+        if (i < 0 || i >= graph.getM()) {
+            throw new IndexOutOfBoundsException("Arista " + i + " fuera de rango (0 a " + (graph.getM() - 1) + ")");
+        }
+        int antes = peso[i];
+        graph.setWeight(i, d);
+        peso[i] = d;
+        if (antes < 0) negativas--;
+        if (d < 0) negativas++;
+        //Bellman-Ford maximiza víctimas: las distancias no lo afectan
+        if (negativas > 0) {
+            recomputeDijkstra();
+        } else if (d < antes) {
+            decrease(from(i), to(i), d);
+        } else if (d > antes) {
+            increase(from(i), to(i), antes);
+        }
+    }
+
+    // ── Dijkstra ─────────────────────────────────────────────────────────
+
+    //La arista u -> v ahora mide d: si mejora a v, se propaga desde v
+    private void decrease(int u, int v, int d) {
+        if (dist[u] == INF || (long) dist[u] + d >= dist[v]) return;
+        reparaciones++;
+        dist[v] = dist[u] + d;
+        parent[v] = u;
+        heap.clear();
+        heap.push(v, dist[v]);
+        propagate();
+    }
+
+    /*
+      La arista u -> v medía antes. Si era la arista del árbol hacia v, todo
+      el subárbol de v puede empeorar: se invalida y se reconstruye desde sus
+      mejores entradas externas.
+     */
+    private void increase(int u, int v, int antes) {
+        if (parent[v] != u || dist[u] == INF || (long) dist[u] + antes != dist[v]) return;
+        reparaciones++;
+
+        //Subárbol de v siguiendo parent[] hacia abajo
+        int count = 0;
+        afectados[count++] = v;
+        marcado[v] = true;
+        for (int k = 0; k < count; k++) {
+            int x = afectados[k];
+            for (int e = base.firstEdge(x), end = base.endEdge(x); e < end; e++) {
+                count = addChild(x, base.target(e), count);
+            }
+            for (int k2 = extraHeadOut[x]; k2 != -1; k2 = extraNextOut[k2]) {
+                count = addChild(x, extraTo[k2], count);
+            }
+        }
+        for (int k = 0; k < count; k++) {
+            dist[afectados[k]] = INF;
+            parent[afectados[k]] = -1;
+        }
+
+        //Mejor entrada de cada nodo afectado desde un nodo no afectado
+        heap.clear();
+        for (int k = 0; k < count; k++) {
+            int x = afectados[k];
+            for (int e = baseRev.firstEdge(x), end = baseRev.endEdge(x); e < end; e++) {
+                entry(baseRev.target(e), x, peso[baseRev.edgeId(e)]);
+            }
+            for (int k2 = extraHeadIn[x]; k2 != -1; k2 = extraNextIn[k2]) {
+                entry(extraFrom[k2], x, peso[baseM + k2]);
+            }
+        }
+        for (int k = 0; k < count; k++) {
+            marcado[afectados[k]] = false;
+        }
+        propagate();
+    }
+
+    private int addChild(int x, int y, int count) {
+        if (parent[y] == x && !marcado[y]) {
+            marcado[y] = true;
+            afectados[count++] = y;
+        }
+        return count;
+    }
+
+    private void entry(int p, int x, int w) {
+        if (marcado[p] || dist[p] == INF) return;
+        long nd = (long) dist[p] + w;
+        if (nd < dist[x]) {
+            dist[x] = (int) nd;
+            parent[x] = p;
+            heap.push(x, dist[x]);
+        }
+    }
+
+    //Dijkstra a partir de lo que haya en el montículo
+    private void propagate() {
+        while (!heap.isEmpty()) {
+            int x = heap.poll();
+            for (int e = base.firstEdge(x), end = base.endEdge(x); e < end; e++) {
+                relax(x, base.target(e), peso[base.edgeId(e)]);
+            }
+            for (int k = extraHeadOut[x]; k != -1; k = extraNextOut[k]) {
+                relax(x, extraTo[k], peso[baseM + k]);
+            }
+        }
+    }
+
+    private void relax(int x, int y, int w) {
+        long nd = (long) dist[x] + w;
+        if (nd < dist[y]) {
+            dist[y] = (int) nd;
+            parent[y] = x;
+            heap.push(y, dist[y]);
+        }
+    }
+
+    private void recomputeDijkstra() {
+        recalculos++;
+        dijkstra.run(origen);
+        System.arraycopy(dijkstra.getDistances(), 0, dist, 0, n);
+        System.arraycopy(dijkstra.getParents(), 0, parent, 0, n);
+    }
+
+    // ── Bellman-Ford (máximas víctimas) ──────────────────────────────────
+
+    /*
+      Arista nueva u -> v y cambio de víctimas en v. Los aumentos se propagan
+      por rondas; si en n-1 rondas no termina hay un ciclo con víctimas y se
+      recalcula todo (así se respeta el mismo corte que BellmanFordMax).
+      También se recalcula si la propagación ya revisó más aristas que las
+      del grafo: a partir de ahí no es más barata que la ejecución completa.
+     */
+    private void repairBellmanFord(int u, int v, int deltaVictimas) {
+        if (!bfExacto) {
+            recomputeBellmanFord();
+            return;
+        }
+        int size = 0;
+        if (deltaVictimas < 0 && maxVictimas[v] >= 0) {
+            size = lowerVictims(v);
+        } else if (deltaVictimas > 0 && maxVictimas[v] >= 0) {
+            if (v != origen) {
+                //Todo camino que llega a v ahora vale deltaVictimas más
+                maxVictimas[v] += deltaVictimas;
+                cola[size++] = v;
+                enCola[v] = true;
+            } else {
+                //El origen empieza en 0: solo cambia si se vuelve a él por un ciclo
+                for (int e = baseRev.firstEdge(v), end = baseRev.endEdge(v); e < end; e++) {
+                    size = raise(baseRev.target(e), v, 0, size);
+                }
+                for (int k = extraHeadIn[v]; k != -1; k = extraNextIn[k]) {
+                    size = raise(extraFrom[k], v, 0, size);
+                }
+            }
+        }
+        if (maxVictimas[u] >= 0) size = raise(u, v, 0, size);
+        if (size == 0) return;
+        reparaciones++;
+
+        long presupuesto = (long) graph.getM() + n;
+        int head = 0;
+        for (int ronda = 1; ronda < n && size > 0 && presupuesto > 0; ronda++) {
+            int enRonda = size;
+            for (int k = 0; k < enRonda; k++) {
+                int x = cola[head];
+                head = head + 1 == n ? 0 : head + 1;
+                size--;
+                enCola[x] = false;
+                presupuesto -= base.endEdge(x) - base.firstEdge(x) + 1;
+                for (int e = base.firstEdge(x), end = base.endEdge(x); e < end; e++) {
+                    size = raise(x, base.target(e), head, size);
+                }
+                for (int k2 = extraHeadOut[x]; k2 != -1; k2 = extraNextOut[k2]) {
+                    size = raise(x, extraTo[k2], head, size);
+                }
+            }
+        }
+        if (size > 0) {
+            Arrays.fill(enCola, false);
+            recomputeBellmanFord();
+        }
+    }
+
+    /*
+      Las víctimas de v bajaron: solo pueden empeorar los nodos cuyo camino
+      (siguiendo padre[]) pasa por v. Se invalidan y cada uno se vuelve a
+      encolar con su mejor entrada desde un nodo no afectado. Retorna el
+      tamaño de la cola.
+     */
+    private int lowerVictims(int v) {
+        int count = 0;
+        afectados[count++] = v;
+        marcado[v] = true;
+        for (int k = 0; k < count; k++) {
+            int x = afectados[k];
+            for (int e = base.firstEdge(x), end = base.endEdge(x); e < end; e++) {
+                count = addVictimChild(x, base.target(e), count);
+            }
+            for (int k2 = extraHeadOut[x]; k2 != -1; k2 = extraNextOut[k2]) {
+                count = addVictimChild(x, extraTo[k2], count);
+            }
+        }
+        for (int k = 0; k < count; k++) {
+            maxVictimas[afectados[k]] = -1;
+            padre[afectados[k]] = -1;
+        }
+        int size = 0;
+        for (int k = 0; k < count; k++) {
+            int x = afectados[k];
+            if (x == origen) {
+                maxVictimas[x] = 0;
+                if (!enCola[x]) {
+                    enCola[x] = true;
+                    cola[size++] = x;
+                }
+                continue;
+            }
+            for (int e = baseRev.firstEdge(x), end = baseRev.endEdge(x); e < end; e++) {
+                int p = baseRev.target(e);
+                if (!marcado[p]) size = raise(p, x, 0, size);
+            }
+            for (int k2 = extraHeadIn[x]; k2 != -1; k2 = extraNextIn[k2]) {
+                if (!marcado[extraFrom[k2]]) size = raise(extraFrom[k2], x, 0, size);
+            }
+        }
+        for (int k = 0; k < count; k++) {
+            marcado[afectados[k]] = false;
+        }
+        return size;
+    }
+
+    private int addVictimChild(int x, int y, int count) {
+        if (padre[y] == x && !marcado[y]) {
+            marcado[y] = true;
+            afectados[count++] = y;
+        }
+        return count;
+    }
+
+    private int raise(int x, int y, int head, int size) {
+        if (maxVictimas[x] < 0) return size;
+        int nuevas = maxVictimas[x] + victimas[y];
+        if (nuevas > maxVictimas[y]) {
+            maxVictimas[y] = nuevas;
+            padre[y] = x;
+            if (!enCola[y]) {
+                enCola[y] = true;
+                int tail = head + size;
+                cola[tail >= n ? tail - n : tail] = y;
+                size++;
+            }
+        }
+        return size;
+    }
+
+    private void recomputeBellmanFord() {
+        recalculos++;
+        bellmanFord.run(origen);
+        System.arraycopy(bellmanFord.getMaxVictimas(), 0, maxVictimas, 0, n);
+        System.arraycopy(bellmanFord.getPadres(), 0, padre, 0, n);
+        bfExacto = bellmanFord.convergio();
+    }
+
+    // ── Estructura ───────────────────────────────────────────────────────
+
+    //Vuelve a tomar el CSR del Graph y vacía las listas de aristas sueltas
+    private void rebuild() {
+        base = graph.freeze();
+        baseRev = base.reverse();
+        baseM = base.getM();
+        peso = new int[Math.max(16, baseM * 2)];
+        negativas = 0;
+        for (int i = 0; i < baseM; i++) {
+            peso[i] = base.edgeWeight(i);
+            if (peso[i] < 0) negativas++;
+        }
+        victimas = graph.getVictimas().clone();
+        Arrays.fill(extraHeadOut, -1);
+        Arrays.fill(extraHeadIn, -1);
+        int cap = 16;
+        extraNextOut = new int[cap];
+        extraNextIn = new int[cap];
+        extraFrom = new int[cap];
+        extraTo = new int[cap];
+        extraCount = 0;
+    }
+
+    private void appendExtra(int i, int u, int v, int d) {
+        int k = extraCount++;
+        if (k == extraFrom.length) {
+            int cap = k * 2;
+            extraNextOut = Arrays.copyOf(extraNextOut, cap);
+            extraNextIn = Arrays.copyOf(extraNextIn, cap);
+            extraFrom = Arrays.copyOf(extraFrom, cap);
+            extraTo = Arrays.copyOf(extraTo, cap);
+        }
+        if (i >= peso.length) peso = Arrays.copyOf(peso, i * 2);
+        peso[i] = d;
+        if (d < 0) negativas++;
+        extraFrom[k] = u;
+        extraTo[k] = v;
+        extraNextOut[k] = extraHeadOut[u];
+        extraHeadOut[u] = k;
+        extraNextIn[k] = extraHeadIn[v];
+        extraHeadIn[v] = k;
+    }
+
+    private int from(int i) {
+        return i < baseM ? base.edgeFrom(i) : extraFrom[i - baseM];
+    }
+
+    private int to(int i) {
+        return i < baseM ? base.edgeTo(i) : extraTo[i - baseM];
+    }
+
+    // ── Consultas ────────────────────────────────────────────────────────
+
+    //Distancia mínima desde el origen, -1 si no es alcanzable
+    public int getDistance(int v) {
+        return dist[v] == INF ? -1 : dist[v];
+    }
+
+    //Camino más corto desde el origen, vacío si no hay
+    public List<Integer> getPath(int v) {
+        return walk(v, dist[v] != INF, parent);
+    }
+
+    //Máximas víctimas llegando a v, -1 si no es alcanzable
+    public int getMaxVictima(int v) {
+        return maxVictimas[v];
+    }
+
+    //Camino de más víctimas desde el origen, vacío si no hay
+    public List<Integer> getPathVictimas(int v) {
+        return walk(v, maxVictimas[v] >= 0, padre);
+    }
+
+    private List<Integer> walk(int v, boolean alcanzable, int[] padres) {
+        List<Integer> path = new ArrayList<>();
+        if (!alcanzable) return path;
+        for (int cur = v; cur != -1; cur = padres[cur]) {
+            path.add(cur);
+            //Seguridad: evitar ciclos infinitos
+            if (path.size() > n) break;
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    public Graph getGraph() {
+        return graph;
+    }
+
+    public int getOrigen() {
+        return origen;
+    }
+
+    //Cambios resueltos con reparación local y con recálculo completo
+    public long getReparaciones() {
+        return reparaciones;
+    }
+
+    public long getRecalculos() {
+        return recalculos;
+    }
+}
@@ -0,0 +1,22 @@
+package TrabajoGrafosCompi;
+
+/*
+  Cola de prioridad de nodos con decrease-key, usada por Dijkstra.
+  Cada nodo está a lo sumo una vez; push() inserta o baja la prioridad.
+ */
+interface ColaNodos {
+
+    //Deja la cola vacía y lista para nodos 0..n-1
+    void reset(int n);
+
+    boolean isEmpty();
+
+    //Cantidad de nodos en la cola
+    int size();
+
+    //Inserta v con prioridad key o la disminuye si ya estaba
+    void push(int v, int key);
+
+    //Saca y retorna el nodo con menor prioridad
+    int poll();
+}
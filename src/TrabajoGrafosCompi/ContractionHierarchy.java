@@ -0,0 +1,458 @@
+package TrabajoGrafosCompi;
+
+import java.util.*;
+
+/*
+  Preprocesamiento de Contraction Hierarchies (CH) sobre un Graph.
+  Los nodos se contraen uno por uno en orden de importancia (diferencia de
+  aristas + vecinos ya contraídos). Al contraer v, para cada par u -> v -> w
+  se agrega un atajo u -> w si ninguna "ruta testigo" que evite v es igual
+  de corta. Al final cada arista queda guardada en su extremo de menor rango:
+    - grafo hacia arriba: aristas v -> w con rango(w) > rango(v)
+    - grafo hacia abajo:  aristas u -> v con rango(u) > rango(v), guardadas en v
+  Las consultas (ContractionHierarchyQuery) solo suben en ambos grafos, así
+  que asientan muy pocos nodos. Cada atajo recuerda su nodo intermedio para
+  poder desempacar el camino original.
+ */
+public final class ContractionHierarchy {
+
+    static final int INF = Integer.MAX_VALUE;
+
+    //Límite de nodos asentados por búsqueda testigo (si se corta, se agrega el atajo)
+    private static final int MAX_ASENTADOS_TESTIGO = 100;
+
+    private final GraphView csr;
+    private final int n;
+
+    //Rango de cada nodo (orden de contracción)
+    private final int[] rank;
+
+    //Grafo hacia arriba: aristas de v en [upFirst[v], upFirst[v + 1])
+    private final int[] upFirst;
+    private int[] upTarget;
+    private int[] upWeight;
+    private int[] upMid;
+    private int upSize;
+
+    //Grafo hacia abajo: aristas entrantes de v desde nodos de mayor rango
+    private final int[] downFirst;
+    private int[] downSource;
+    private int[] downWeight;
+    private int[] downMid;
+    private int downSize;
+
+    private int shortcuts;
+
+    // ── Estado temporal de la contracción ────────────────────────────────
+    private int[][] outTo, outW, outMid;
+    private int[][] inFrom, inW, inMid;
+    private int[] outCnt, inCnt;
+    private int[] deletedNeighbors;
+
+    //Búsqueda testigo
+    private int[] witnessDist;
+    private int[] witnessSeen;
+    private int[] witnessTarget;
+    private int witnessRound;
+    private IndexedMinHeap witnessHeap;
+
+    public ContractionHierarchy(Graph graph) {
+        this(graph.freeze());
+    }
+
+    public ContractionHierarchy(GraphView csr) {
+        if (csr.getM() > 0 && csr.getMinWeight() < 0) {
+            throw new IllegalArgumentException("Contraction Hierarchies requiere distancias no negativas");
+        }
+        this.csr = csr;
+        this.n = csr.getN();
+        this.rank = new int[n];
+        this.upFirst = new int[n + 1];
+        this.downFirst = new int[n + 1];
+        int cap = Math.max(16, csr.getM());
+        upTarget = new int[cap];
+        upWeight = new int[cap];
+        upMid = new int[cap];
+        downSource = new int[cap];
+        downWeight = new int[cap];
+        downMid = new int[cap];
+
+        loadGraph();
+        contractAll();
+        release();
+    }
+
+    //Copia las aristas a listas dinámicas, sin lazos y con una sola arista (la menor) por par
+    private void loadGraph() {
+        outTo = new int[n][];
+        outW = new int[n][];
+        outMid = new int[n][];
+        inFrom = new int[n][];
+        inW = new int[n][];
+        inMid = new int[n][];
+        outCnt = new int[n];
+        inCnt = new int[n];
+        for (int v = 0; v < n; v++) {
+            int deg = Math.max(2, csr.endEdge(v) - csr.firstEdge(v));
+            outTo[v] = new int[deg];
+            outW[v] = new int[deg];
+            outMid[v] = new int[deg];
+            inFrom[v] = new int[2];
+            inW[v] = new int[2];
+            inMid[v] = new int[2];
+        }
+        deletedNeighbors = new int[n];
+        for (int u = 0; u < n; u++) {
+            for (int e = csr.firstEdge(u), end = csr.endEdge(u); e < end; e++) {
+                int v = csr.target(e);
+                if (v != u) addOrImprove(u, v, csr.weight(e), -1);
+            }
+        }
+        witnessDist = new int[n];
+        witnessSeen = new int[n];
+        witnessTarget = new int[n];
+        witnessHeap = new IndexedMinHeap(n);
+    }
+
+    //Libera las listas temporales una vez construido el índice
+    private void release() {
+        outTo = outW = outMid = inFrom = inW = inMid = null;
+        outCnt = inCnt = deletedNeighbors = witnessDist = witnessSeen = witnessTarget = null;
+        witnessHeap = null;
+    }
+
+    /*
+      Agrega u -> w o mejora su peso si ya existe. Retorna true si hubo cambio.
+     */
+    private boolean addOrImprove(int u, int w, int weight, int mid) {
+        int[] to = outTo[u];
+        for (int i = 0; i < outCnt[u]; i++) {
+            if (to[i] == w) {
+                if (weight >= outW[u][i]) return false;
+                outW[u][i] = weight;
+                outMid[u][i] = mid;
+                int[] from = inFrom[w];
+                for (int j = 0; j < inCnt[w]; j++) {
+                    if (from[j] == u) {
+                        inW[w][j] = weight;
+                        inMid[w][j] = mid;
+                        break;
+                    }
+                }
+                return true;
+            }
+        }
+        int i = outCnt[u]++;
+        if (i == to.length) {
+            outTo[u] = Arrays.copyOf(outTo[u], i * 2);
+            outW[u] = Arrays.copyOf(outW[u], i * 2);
+            outMid[u] = Arrays.copyOf(outMid[u], i * 2);
+        }
+        outTo[u][i] = w;
+        outW[u][i] = weight;
+        outMid[u][i] = mid;
+
+        int j = inCnt[w]++;
+        if (j == inFrom[w].length) {
+            inFrom[w] = Arrays.copyOf(inFrom[w], j * 2);
+            inW[w] = Arrays.copyOf(inW[w], j * 2);
+            inMid[w] = Arrays.copyOf(inMid[w], j * 2);
+        }
+        inFrom[w][j] = u;
+        inW[w][j] = weight;
+        inMid[w][j] = mid;
+        return true;
+    }
+
+    /*
+      Contrae todos los nodos usando una cola con prioridades perezosas: al sacar
+      un nodo se recalcula su prioridad y, si ya no es la menor, se vuelve a encolar.
+     */
+    private void contractAll() {
+        IndexedMinHeap order = new IndexedMinHeap(n);
+        for (int v = 0; v < n; v++) {
+            order.push(v, priority(v));
+        }
+        int next = 0;
+        while (!order.isEmpty()) {
+            int v = order.poll();
+            int p = priority(v);
+            if (!order.isEmpty() && p > order.minKey()) {
+                order.push(v, p);
+                continue;
+            }
+            rank[v] = next++;
+            storeEdges(v);
+            contract(v, false);
+            detach(v);
+            for (int i = 0; i < outCnt[v]; i++) deletedNeighbors[outTo[v][i]]++;
+            for (int i = 0; i < inCnt[v]; i++) deletedNeighbors[inFrom[v][i]]++;
+        }
+        //Los nodos se contrajeron en orden, pero los bloques se indexan por nodo
+        upFirst[n] = upSize;
+        downFirst[n] = downSize;
+        fixFirst(upFirst);
+        fixFirst(downFirst);
+    }
+
+    //Quita v de las listas de sus vecinos; así las listas solo tienen nodos vivos
+    private void detach(int v) {
+        for (int i = 0; i < outCnt[v]; i++) {
+            int w = outTo[v][i];
+            int[] from = inFrom[w];
+            for (int j = 0; j < inCnt[w]; j++) {
+                if (from[j] == v) {
+                    int last = --inCnt[w];
+                    from[j] = from[last];
+                    inW[w][j] = inW[w][last];
+                    inMid[w][j] = inMid[w][last];
+                    break;
+                }
+            }
+        }
+        for (int i = 0; i < inCnt[v]; i++) {
+            int u = inFrom[v][i];
+            int[] to = outTo[u];
+            for (int j = 0; j < outCnt[u]; j++) {
+                if (to[j] == v) {
+                    int last = --outCnt[u];
+                    to[j] = to[last];
+                    outW[u][j] = outW[u][last];
+                    outMid[u][j] = outMid[u][last];
+                    break;
+                }
+            }
+        }
+    }
+
+    //Prioridad: atajos que se agregarían - aristas que se quitan + vecinos ya contraídos
+    private int priority(int v) {
+        int removed = outCnt[v] + inCnt[v];
+        return contract(v, true) - removed + deletedNeighbors[v];
+    }
+
+    /*
+      Guarda las aristas de v en los grafos de búsqueda. Se llama justo antes de
+      contraer v; como las listas solo tienen nodos vivos, todos tienen mayor rango.
+      upFirst/downFirst guardan temporalmente el inicio del bloque de v.
+     */
+    private void storeEdges(int v) {
+        upFirst[v] = upSize;
+        for (int i = 0; i < outCnt[v]; i++) {
+            int w = outTo[v][i];
+            if (upSize == upTarget.length) {
+                upTarget = Arrays.copyOf(upTarget, upSize * 2);
+                upWeight = Arrays.copyOf(upWeight, upSize * 2);
+                upMid = Arrays.copyOf(upMid, upSize * 2);
+            }
+            upTarget[upSize] = w;
+            upWeight[upSize] = outW[v][i];
+            upMid[upSize] = outMid[v][i];
+            upSize++;
+        }
+        downFirst[v] = downSize;
+        for (int i = 0; i < inCnt[v]; i++) {
+            int u = inFrom[v][i];
+            if (downSize == downSource.length) {
+                downSource = Arrays.copyOf(downSource, downSize * 2);
+                downWeight = Arrays.copyOf(downWeight, downSize * 2);
+                downMid = Arrays.copyOf(downMid, downSize * 2);
+            }
+            downSource[downSize] = u;
+            downWeight[downSize] = inW[v][i];
+            downMid[downSize] = inMid[v][i];
+            downSize++;
+        }
+    }
+
+    /*
+      Los bloques quedaron en orden de contracción; reordenamos los arreglos para
+      que queden por número de nodo y first[] sea una suma prefija normal.
+     */
+    private void fixFirst(int[] first) {
+        boolean up = first == upFirst;
+        int total = first[n];
+        int[] len = new int[n];
+        int[] start = Arrays.copyOf(first, n);
+        //El bloque de v termina donde empieza el del siguiente nodo contraído
+        int[] byRank = new int[n];
+        for (int v = 0; v < n; v++) byRank[rank[v]] = v;
+        for (int r = 0; r < n; r++) {
+            int v = byRank[r];
+            int end = r + 1 < n ? start[byRank[r + 1]] : total;
+            len[v] = end - start[v];
+        }
+        int[] a = up ? upTarget : downSource;
+        int[] w = up ? upWeight : downWeight;
+        int[] mid = up ? upMid : downMid;
+        int[] na = new int[total];
+        int[] nw = new int[total];
+        int[] nm = new int[total];
+        int pos = 0;
+        for (int v = 0; v < n; v++) {
+            first[v] = pos;
+            System.arraycopy(a, start[v], na, pos, len[v]);
+            System.arraycopy(w, start[v], nw, pos, len[v]);
+            System.arraycopy(mid, start[v], nm, pos, len[v]);
+            pos += len[v];
+        }
+        first[n] = total;
+        if (up) {
+            upTarget = na;
+            upWeight = nw;
+            upMid = nm;
+        } else {
+            downSource = na;
+            downWeight = nw;
+            downMid = nm;
+        }
+    }
+
+    /*
+      Contrae v (o solo cuenta los atajos si simulate es true). Para cada vecino
+      de entrada u corre una búsqueda testigo local que evita v.
+     */
+    private int contract(int v, boolean simulate) {
+        int count = 0;
+        for (int i = 0; i < inCnt[v]; i++) {
+            int u = inFrom[v][i];
+            int wuv = inW[v][i];
+            int maxOut = -1;
+            for (int j = 0; j < outCnt[v]; j++) {
+                if (outTo[v][j] != u && outW[v][j] > maxOut) maxOut = outW[v][j];
+            }
+            if (maxOut < 0) continue;
+            witnessSearch(u, v, (long) wuv + maxOut);
+            for (int j = 0; j < outCnt[v]; j++) {
+                int w = outTo[v][j];
+                if (w == u) continue;
+                long via = (long) wuv + outW[v][j];
+                int witness = witnessSeen[w] == witnessRound ? witnessDist[w] : INF;
+                if (witness <= via) continue;
+                count++;
+                if (!simulate && via < INF && addOrImprove(u, w, (int) via, v)) {
+                    shortcuts++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /*
+      Dijkstra local desde u que ignora v (los contraídos ya no están en las
+      listas). Termina al asentar todos los vecinos de salida de v, al pasar
+      maxDist o al llegar al límite de nodos asentados.
+     */
+    private void witnessSearch(int u, int avoid, long maxDist) {
+        witnessRound++;
+        if (witnessRound == 0) {
+            Arrays.fill(witnessSeen, 0);
+            Arrays.fill(witnessTarget, 0);
+            witnessRound = 1;
+        }
+        int targets = 0;
+        for (int j = 0; j < outCnt[avoid]; j++) {
+            int w = outTo[avoid][j];
+            if (w != u && witnessTarget[w] != witnessRound) {
+                witnessTarget[w] = witnessRound;
+                targets++;
+            }
+        }
+        witnessHeap.clear();
+        witnessSeen[u] = witnessRound;
+        witnessDist[u] = 0;
+        witnessHeap.push(u, 0);
+        int settled = 0;
+        while (!witnessHeap.isEmpty() && settled < MAX_ASENTADOS_TESTIGO) {
+            int x = witnessHeap.poll();
+            settled++;
+            int dx = witnessDist[x];
+            if (dx > maxDist) break;
+            if (witnessTarget[x] == witnessRound && --targets == 0) break;
+            for (int i = 0; i < outCnt[x]; i++) {
+                int y = outTo[x][i];
+                if (y == avoid) continue;
+                long nd = (long) dx + outW[x][i];
+                if (nd > maxDist) continue;
+                if (witnessSeen[y] != witnessRound || nd < witnessDist[y]) {
+                    witnessSeen[y] = witnessRound;
+                    witnessDist[y] = (int) nd;
+                    witnessHeap.push(y, (int) nd);
+                }
+            }
+        }
+    }
+
+    // ── Acceso para las consultas ────────────────────────────────────────
+
+    GraphView getGraph() {
+        return csr;
+    }
+
+    int getN() {
+        return n;
+    }
+
+    int upFirst(int v) {
+        return upFirst[v];
+    }
+
+    int upEnd(int v) {
+        return upFirst[v + 1];
+    }
+
+    int upTarget(int e) {
+        return upTarget[e];
+    }
+
+    int upWeight(int e) {
+        return upWeight[e];
+    }
+
+    int upMid(int e) {
+        return upMid[e];
+    }
+
+    int downFirst(int v) {
+        return downFirst[v];
+    }
+
+    int downEnd(int v) {
+        return downFirst[v + 1];
+    }
+
+    int downSource(int e) {
+        return downSource[e];
+    }
+
+    int downWeight(int e) {
+        return downWeight[e];
+    }
+
+    int downMid(int e) {
+        return downMid[e];
+    }
+
+    //Nodo intermedio del atajo a -> b (-1 si es una arista original)
+    int midOf(int a, int b) {
+        if (rank[a] < rank[b]) {
+            for (int e = upFirst[a]; e < upFirst[a + 1]; e++) {
+                if (upTarget[e] == b) return upMid[e];
+            }
+        } else {
+            for (int e = downFirst[b]; e < downFirst[b + 1]; e++) {
+                if (downSource[e] == a) return downMid[e];
+            }
+        }
+        throw new IllegalStateException("No existe la arista " + a + " -> " + b + " en la jerarquía");
+    }
+
+    public int getRank(int v) {
+        return rank[v];
+    }
+
+    //Número de atajos agregados durante la contracción
+    public int getShortcuts() {
+        return shortcuts;
+    }
+}
@@ -0,0 +1,228 @@
+package TrabajoGrafosCompi;
+
+import java.util.*;
+
+/*
+  Consulta de origen a destino sobre una ContractionHierarchy.
+  Hace una búsqueda hacia arriba desde el origen y otra hacia arriba (por
+  aristas invertidas) desde el destino; cada dirección se detiene cuando su
+  mínimo ya no puede mejorar el mejor encuentro. El camino se devuelve
+  desempacado y sin nodos repetidos, en el mismo formato que
+  DijkstraAlgoritmo.getPath, así que se puede pasar tal cual a
+  GraphPanel.setPaths. La distancia es la de Dijkstra; si hay varios caminos
+  igual de cortos puede ser otro que el de DijkstraAlgoritmo.getPath.
+  Cada instancia es un espacio de trabajo reutilizable para un solo hilo.
+ */
+public class ContractionHierarchyQuery {
+
+    private final ContractionHierarchy ch;
+
+    private final int[] distF;
+    private final int[] distB;
+    private final int[] parentF;
+    private final int[] parentB;
+    private final int[] seenF;
+    private final int[] seenB;
+    private int query;
+
+    private final IndexedMinHeap heapF;
+    private final IndexedMinHeap heapB;
+
+    //Posición de cada nodo en el camino que arma getPath (válida si enCamino[v] == marcaCamino)
+    private final int[] enCamino;
+    private final int[] posCamino;
+    private int marcaCamino;
+
+    //Resultado de la última consulta
+    private int source;
+    private int target;
+    private long best;
+    private int meet = -1;
+    private int settled;
+
+    public ContractionHierarchyQuery(ContractionHierarchy ch) {
+        this.ch = ch;
+        int n = ch.getN();
+        distF = new int[n];
+        distB = new int[n];
+        parentF = new int[n];
+        parentB = new int[n];
+        seenF = new int[n];
+        seenB = new int[n];
+        heapF = new IndexedMinHeap(n);
+        heapB = new IndexedMinHeap(n);
+        enCamino = new int[n];
+        posCamino = new int[n];
+    }
+
+    public void query(int start, int end) {
+        heapF.clear();
+        heapB.clear();
+        query++;
+        if (query == 0) {
+            Arrays.fill(seenF, 0);
+            Arrays.fill(seenB, 0);
+            query = 1;
+        }
+        source = start;
+        target = end;
+        best = Long.MAX_VALUE;
+        meet = -1;
+        settled = 0;
+
+        seenF[start] = query;
+        distF[start] = 0;
+        parentF[start] = -1;
+        heapF.push(start, 0);
+        seenB[end] = query;
+        distB[end] = 0;
+        parentB[end] = -1;
+        heapB.push(end, 0);
+
+        boolean forward = true;
+        while (true) {
+            boolean canF = !heapF.isEmpty() && heapF.minKey() < best;
+            boolean canB = !heapB.isEmpty() && heapB.minKey() < best;
+            if (!canF && !canB) break;
+            //Alternamos entre direcciones mientras ambas sigan activas
+            if (canF && (forward || !canB)) {
+                settleForward();
+            } else {
+                settleBackward();
+            }
+            forward = !forward;
+        }
+    }
+
+    private void settleForward() {
+        int u = heapF.poll();
+        settled++;
+        int du = distF[u];
+        if (seenB[u] == query && (long) du + distB[u] < best) {
+            best = (long) du + distB[u];
+            meet = u;
+        }
+        for (int e = ch.upFirst(u), end = ch.upEnd(u); e < end; e++) {
+            int v = ch.upTarget(e);
+            int nd = du + ch.upWeight(e);
+            if (seenF[v] != query || nd < distF[v]) {
+                seenF[v] = query;
+                distF[v] = nd;
+                parentF[v] = u;
+                heapF.push(v, nd);
+            }
+        }
+    }
+
+    private void settleBackward() {
+        int u = heapB.poll();
+        settled++;
+        int du = distB[u];
+        if (seenF[u] == query && (long) du + distF[u] < best) {
+            best = (long) du + distF[u];
+            meet = u;
+        }
+        for (int e = ch.downFirst(u), end = ch.downEnd(u); e < end; e++) {
+            int v = ch.downSource(e);
+            int nd = du + ch.downWeight(e);
+            if (seenB[v] != query || nd < distB[v]) {
+                seenB[v] = query;
+                distB[v] = nd;
+                parentB[v] = u;
+                heapB.push(v, nd);
+            }
+        }
+    }
+
+    //Camino más corto desempacado de la última consulta, vacío si no existe
+    public List<Integer> getPath() {
+        List<Integer> path = new ArrayList<>();
+        if (meet == -1) return path; // Sin camino
+
+        //Nodos de la jerarquía: origen ... encuentro ... destino
+        List<Integer> hops = new ArrayList<>();
+        for (int cur = meet; cur != -1; cur = parentF[cur]) {
+            hops.add(cur);
+        }
+        Collections.reverse(hops);
+        for (int cur = parentB[meet]; cur != -1; cur = parentB[cur]) {
+            hops.add(cur);
+        }
+
+        //Desempacamos cada atajo con una pila explícita {a, b}
+        path.add(hops.get(0));
+        int[] stack = new int[16];
+        for (int i = 0; i + 1 < hops.size(); i++) {
+            int top = 0;
+            stack[top++] = hops.get(i);
+            stack[top++] = hops.get(i + 1);
+            while (top > 0) {
+                int b = stack[--top];
+                int a = stack[--top];
+                int mid = ch.midOf(a, b);
+                if (mid == -1) {
+                    path.add(b);
+                    continue;
+                }
+                if (top + 4 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+                //Primero a -> mid, luego mid -> b (pila LIFO)
+                stack[top++] = mid;
+                stack[top++] = b;
+                stack[top++] = a;
+                stack[top++] = mid;
+            }
+        }
+        return sinCiclos(path);
+    }
+
+    /*
+      Con aristas de peso 0 el encuentro puede armar un paseo que repite nodos
+      (por ejemplo 2 -> 3 -> 1 -> 3). Como el camino es mínimo y no hay pesos
+      negativos, cada vuelta entre dos apariciones de un nodo cuesta 0: se
+      recorta sin cambiar la distancia.
+     */
+    private List<Integer> sinCiclos(List<Integer> path) {
+        marcaCamino++;
+        if (marcaCamino == 0) {
+            Arrays.fill(enCamino, 0);
+            marcaCamino = 1;
+        }
+        List<Integer> simple = new ArrayList<>(path.size());
+        for (int v : path) {
+            if (enCamino[v] == marcaCamino) {
+                //Se descarta la vuelta desde la aparición anterior de v
+                int pos = posCamino[v];
+                for (int i = simple.size() - 1; i > pos; i--) {
+                    enCamino[simple.remove(i)] = 0;
+                }
+                continue;
+            }
+            enCamino[v] = marcaCamino;
+            posCamino[v] = simple.size();
+            simple.add(v);
+        }
+        return simple;
+    }
+
+    //Distancia de la última consulta, -1 si no hay camino
+    public int getDistance() {
+        return meet == -1 ? -1 : (int) best;
+    }
+
+    public int countVictims(List<Integer> path) {
+        return ch.getGraph().pathVictims(path);
+    }
+
+    //Nodos asentados entre ambas direcciones en la última consulta
+    public int getSettled() {
+        return settled;
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    public int getTarget() {
+        return target;
+    }
+}
@@ -0,0 +1,149 @@
+package TrabajoGrafosCompi;
+
+import java.util.*;
+
+/*
+  Versión inmutable y compacta de un Graph (compressed sparse row).
+  Las aristas salientes de u ocupan las posiciones [offsets[u], offsets[u+1])
+  de targets[] y weights[], conservando el orden en que fueron agregadas.
+  Además se guarda la lista plana de aristas en orden de inserción para Bellman-Ford.
+  No hay un objeto por arista: todo vive en arreglos primitivos.
+ */
+public final class CsrGraph implements GraphView {
+
+    //Numero de nodos y de aristas
+    private final int n;
+    private final int m;
+
+    //Victimas por nodo (copia, no cambia aunque el Graph siga creciendo)
+    private final int[] victimas;
+
+    //Adyacencia compacta: offsets tiene n+1 posiciones
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+
+    //Índice de inserción de la arista en cada posición de la adyacencia
+    private final int[] edgeIds;
+
+    //Aristas en orden de inserción {u, v, d} como arreglos paralelos
+    private final int[] edgeFrom;
+    private final int[] edgeTo;
+    private final int[] edgeWeight;
+
+    private final int minWeight;
+    private final int maxWeight;
+
+    //Grafo transpuesto (aristas invertidas), se construye la primera vez que se pide
+    private volatile CsrGraph reverse;
+
+    CsrGraph(int n, int m, int[] victimas, int[] from, int[] to, int[] weight,
+             int minWeight, int maxWeight) {
+        this.n = n;
+        this.m = m;
+        this.victimas = Arrays.copyOf(victimas, n);
+        this.edgeFrom = Arrays.copyOf(from, m);
+        this.edgeTo = Arrays.copyOf(to, m);
+        this.edgeWeight = Arrays.copyOf(weight, m);
+        this.minWeight = minWeight;
+        this.maxWeight = maxWeight;
+
+        //Conteo de grados salientes y suma prefija
+        offsets = new int[n + 1];
+        for (int i = 0; i < m; i++) {
+            offsets[from[i] + 1]++;
+        }
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] += offsets[u];
+        }
+
+        //Ubicamos cada arista en su bloque; recorrer en orden la deja estable
+        targets = new int[m];
+        weights = new int[m];
+        edgeIds = new int[m];
+        int[] next = Arrays.copyOf(offsets, n);
+        for (int i = 0; i < m; i++) {
+            int pos = next[from[i]]++;
+            targets[pos] = to[i];
+            weights[pos] = weight[i];
+            edgeIds[pos] = i;
+        }
+    }
+
+    //Retornamos el número de nodos
+    public int getN() {
+        return n;
+    }
+
+    //Retornamos el número de aristas
+    public int getM() {
+        return m;
+    }
+
+    //Victimas del nodo v
+    public int victims(int v) {
+        return victimas[v];
+    }
+
+    //Primera posición de las aristas salientes de u
+    public int firstEdge(int u) {
+        return offsets[u];
+    }
+
+    //Posición siguiente a la última arista saliente de u (exclusiva)
+    public int endEdge(int u) {
+        return offsets[u + 1];
+    }
+
+    //Destino de la arista en la posición e de la adyacencia
+    public int target(int e) {
+        return targets[e];
+    }
+
+    //Distancia de la arista en la posición e de la adyacencia
+    public int weight(int e) {
+        return weights[e];
+    }
+
+    //Índice de inserción (0 a m-1) de la arista en la posición e de la adyacencia
+    int edgeId(int e) {
+        return edgeIds[e];
+    }
+
+    //Origen de la i-ésima arista en orden de inserción
+    public int edgeFrom(int i) {
+        return edgeFrom[i];
+    }
+
+    //Destino de la i-ésima arista en orden de inserción
+    public int edgeTo(int i) {
+        return edgeTo[i];
+    }
+
+    //Distancia de la i-ésima arista en orden de inserción
+    public int edgeWeight(int i) {
+        return edgeWeight[i];
+    }
+
+    /*
+      Grafo con todas las aristas invertidas (v -> u), con las mismas víctimas.
+      Sirve para búsquedas hacia atrás desde el destino.
+     */
+    public CsrGraph reverse() {
+        CsrGraph r = reverse;
+        if (r == null) {
+            r = new CsrGraph(n, m, victimas, edgeTo, edgeFrom, edgeWeight, minWeight, maxWeight);
+            r.reverse = this;
+            reverse = r;
+        }
+        return r;
+    }
+
+    public int getMinWeight() {
+        return minWeight;
+    }
+
+    public int getMaxWeight() {
+        return maxWeight;
+    }
+}
@@ -0,0 +1,432 @@
+package TrabajoGrafosCompi;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+  Caminos más cortos desde un origen con delta-stepping (Meyer y Sanders),
+  repartiendo el trabajo en un ForkJoinPool. Los nodos se agrupan en cubetas
+  de ancho delta según su distancia provisoria; todas las aristas de los
+  nodos de la cubeta actual se relajan en paralelo.
+
+  Las aristas se separan en livianas (d <= delta) y pesadas (d > delta).
+  Dentro de una cubeta solo se relajan las livianas, en rondas, porque pueden
+  volver a meter nodos en la misma cubeta. Cuando la cubeta queda vacía, sus
+  nodos ya tienen la distancia final y sus aristas pesadas se relajan una sola
+  vez (siempre caen en cubetas posteriores).
+
+  La distancia y el padre de cada nodo van juntos en un long (distancia en
+  los 32 bits altos, padre + 1 en los bajos) y se actualizan con
+  compareAndSet solo si la distancia baja, así que nunca quedan una distancia
+  y un padre de relajaciones distintas.
+
+  Da los mismos arreglos dist/parent que DijkstraAlgoritmo (Integer.MAX_VALUE
+  = no alcanzado, -1 = sin padre) y los mismos getPath/getDistance. Las
+  distancias son idénticas; si hay empates, el padre puede ser otro nodo con
+  la misma distancia (cualquiera de los caminos más cortos). Con distancias
+  negativas no aplica y se usa DijkstraAlgoritmo directamente.
+ */
+public class DeltaStepping {
+
+    //Cubetas en memoria como máximo: delta se agranda si el peso máximo pediría más
+    private static final int MAX_CUBETAS = 1 << 12;
+
+    //Nodos de la frontera por tarea; con menos se trabaja sin repartir
+    private static final int MIN_TROZO = 512;
+
+    //Padre + 1 = 0 y distancia Integer.MAX_VALUE: nodo no alcanzado
+    private static final long SIN_CAMINO = (long) Integer.MAX_VALUE << 32;
+
+    private final Graph graph;
+    private final ForkJoinPool pool;
+
+    //0 = automático (ver autoDelta)
+    private int delta;
+    private int deltaUsado;
+
+    //Grafo compacto usado en la última ejecución
+    private GraphView csr;
+
+    /*
+      Adyacencia propia con las aristas livianas de cada nodo primero:
+      livianas de u en [inicio[u], corte[u]), pesadas en [corte[u], inicio[u + 1]).
+      Se arma de nuevo solo si cambia el grafo o delta.
+     */
+    private GraphView csrSeparado;
+    private int deltaSeparado;
+    private int[] inicio;
+    private int[] corte;
+    private int[] destinos;
+    private int[] pesos;
+
+    //Distancia y padre empaquetados (ver empaquetar)
+    private AtomicLongArray estado;
+
+    //Cubeta en la que cada nodo se asentó por última vez + 1 (para no repetirlo en asentados)
+    private int[] asentadoEn;
+
+    //Resultados en el mismo formato que DijkstraAlgoritmo
+    private int[] dist;
+    private int[] parent;
+
+    //Un espacio de salida por tarea: cubetas circulares y nodos asentados
+    private Trozo[] trozos;
+    private int numCubetas;
+
+    //Frontera de la ronda actual, juntada de todos los trozos
+    private int[] frontera = new int[16];
+
+    //Para grafos con distancias negativas
+    private DijkstraAlgoritmo secuencial;
+    private GraphView csrSecuencial;
+
+    public DeltaStepping(Graph graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    public DeltaStepping(Graph graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+    }
+
+    public DeltaStepping(GraphView csr, ForkJoinPool pool) {
+        this.graph = null;
+        this.csr = csr;
+        this.pool = pool;
+    }
+
+    //Lista de enteros que crece sola, se vacía sin liberar memoria
+    private static final class Enteros {
+        int[] a = new int[16];
+        int size;
+
+        void add(int x) {
+            if (size == a.length) a = Arrays.copyOf(a, size * 2);
+            a[size++] = x;
+        }
+    }
+
+    //Las cubetas se crean recién cuando reciben su primer nodo
+    private static final class Trozo {
+        final Enteros[] cubetas;
+        final Enteros asentados = new Enteros();
+
+        Trozo(int numCubetas) {
+            cubetas = new Enteros[numCubetas];
+        }
+
+        void add(int cubeta, int v) {
+            Enteros c = cubetas[cubeta];
+            if (c == null) cubetas[cubeta] = c = new Enteros();
+            c.add(v);
+        }
+    }
+
+    //Fija delta (ancho de cada cubeta); 0 lo elige según los pesos en cada ejecución
+    public void setDelta(int delta) {
+        if (delta < 0) throw new IllegalArgumentException("delta no puede ser negativo");
+        this.delta = delta;
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+
+    //Delta usado en la última ejecución (0 si se usó DijkstraAlgoritmo por distancias negativas)
+    public int getDeltaUsado() {
+        return deltaUsado;
+    }
+
+    public void run(int start) {
+        if (graph != null) csr = graph.freeze();
+        int n = csr.getN();
+        if (csr.getMinWeight() < 0) {
+            runSecuencial(start);
+            return;
+        }
+
+        deltaUsado = delta > 0 ? delta : autoDelta(csr);
+        //Con a lo sumo MAX_CUBETAS cubetas tiene que alcanzar para cubrir el peso máximo
+        deltaUsado = Math.max(deltaUsado, csr.getMaxWeight() / (MAX_CUBETAS - 2) + 1);
+        separar();
+        prepararTrozos();
+
+        if (estado == null || estado.length() != n) {
+            estado = new AtomicLongArray(n);
+            asentadoEn = new int[n];
+            dist = new int[n];
+            parent = new int[n];
+        }
+        for (int v = 0; v < n; v++) estado.set(v, SIN_CAMINO);
+        Arrays.fill(asentadoEn, 0);
+        estado.set(start, empaquetar(0, -1));
+
+        trozos[0].add(0, start);
+        int cubeta = 0;
+        while ((cubeta = siguienteCubeta(cubeta)) >= 0) {
+            //Rondas de aristas livianas hasta que la cubeta no reciba más nodos
+            int f;
+            while ((f = juntarCubeta(cubeta)) > 0) {
+                relajar(f, cubeta, true);
+            }
+            //Los asentados de la cubeta ya tienen su distancia final: aristas pesadas una vez
+            f = juntarAsentados();
+            if (f > 0) relajar(f, cubeta, false);
+        }
+
+        for (int v = 0; v < n; v++) {
+            long e = estado.get(v);
+            dist[v] = distancia(e);
+            parent[v] = padre(e);
+        }
+    }
+
+    /*
+      Delta automático: el peso medio dividido por el grado medio. Así cada
+      nodo aporta en promedio alrededor de una arista liviana por cubeta,
+      equilibrio entre rondas con mucho trabajo para repartir (delta grande)
+      y pocas relajaciones repetidas (delta chico, que tiende a Dijkstra).
+     */
+    static int autoDelta(GraphView csr) {
+        int m = csr.getM();
+        int n = csr.getN();
+        if (m == 0 || n == 0) return 1;
+        long suma = 0;
+        //Con muchas aristas alcanza una muestra espaciada
+        int paso = Math.max(1, m / 65536);
+        int muestras = 0;
+        for (int i = 0; i < m; i += paso) {
+            suma += csr.edgeWeight(i);
+            muestras++;
+        }
+        double media = (double) suma / muestras;
+        double grado = (double) m / n;
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE / 2, Math.round(media / Math.max(1.0, grado))));
+    }
+
+    //Reordena la adyacencia en livianas y pesadas para el delta actual
+    private void separar() {
+        if (csrSeparado == csr && deltaSeparado == deltaUsado) return;
+        int n = csr.getN();
+        int m = csr.getM();
+        inicio = new int[n + 1];
+        corte = new int[n];
+        destinos = new int[m];
+        pesos = new int[m];
+        int pos = 0;
+        for (int u = 0; u < n; u++) {
+            inicio[u] = pos;
+            int first = csr.firstEdge(u);
+            int end = csr.endEdge(u);
+            for (int e = first; e < end; e++) {
+                if (csr.weight(e) <= deltaUsado) {
+                    destinos[pos] = csr.target(e);
+                    pesos[pos++] = csr.weight(e);
+                }
+            }
+            corte[u] = pos;
+            for (int e = first; e < end; e++) {
+                if (csr.weight(e) > deltaUsado) {
+                    destinos[pos] = csr.target(e);
+                    pesos[pos++] = csr.weight(e);
+                }
+            }
+        }
+        inicio[n] = pos;
+        csrSeparado = csr;
+        deltaSeparado = deltaUsado;
+    }
+
+    private void prepararTrozos() {
+        //Una relajación desde la cubeta b llega a lo sumo a b + 1 + maxPeso / delta
+        int cubetas = csr.getMaxWeight() / deltaUsado + 2;
+        int cantidad = 4 * pool.getParallelism();
+        if (trozos == null || trozos.length != cantidad || numCubetas != cubetas) {
+            numCubetas = cubetas;
+            trozos = new Trozo[cantidad];
+            for (int i = 0; i < cantidad; i++) trozos[i] = new Trozo(cubetas);
+        } else {
+            for (Trozo t : trozos) {
+                for (Enteros c : t.cubetas) {
+                    if (c != null) c.size = 0;
+                }
+                t.asentados.size = 0;
+            }
+        }
+    }
+
+    //Primera cubeta desde desde con algún nodo pendiente, o -1 si no quedan
+    private int siguienteCubeta(int desde) {
+        for (int k = 0; k < numCubetas; k++) {
+            int i = (desde + k) % numCubetas;
+            for (Trozo t : trozos) {
+                if (t.cubetas[i] != null && t.cubetas[i].size > 0) return desde + k;
+            }
+        }
+        return -1;
+    }
+
+    //Pasa los nodos pendientes de la cubeta a frontera (vaciando la cubeta) y retorna cuántos son
+    private int juntarCubeta(int cubeta) {
+        int i = cubeta % numCubetas;
+        int f = 0;
+        for (Trozo t : trozos) {
+            Enteros c = t.cubetas[i];
+            if (c == null) continue;
+            f = agregarFrontera(f, c);
+            c.size = 0;
+        }
+        return f;
+    }
+
+    private int juntarAsentados() {
+        int f = 0;
+        for (Trozo t : trozos) {
+            f = agregarFrontera(f, t.asentados);
+            t.asentados.size = 0;
+        }
+        return f;
+    }
+
+    private int agregarFrontera(int f, Enteros c) {
+        if (f + c.size > frontera.length) {
+            frontera = Arrays.copyOf(frontera, Math.max(f + c.size, frontera.length * 2));
+        }
+        System.arraycopy(c.a, 0, frontera, f, c.size);
+        return f + c.size;
+    }
+
+    //Relaja las aristas livianas o pesadas de frontera[0..f), en paralelo si alcanza el trabajo
+    private void relajar(int f, int cubeta, boolean livianas) {
+        int partes = Math.min(trozos.length, (f + MIN_TROZO - 1) / MIN_TROZO);
+        if (partes <= 1) {
+            relajarTrozo(0, 0, f, cubeta, livianas);
+        } else {
+            pool.invoke(new Tarea(0, partes, partes, f, cubeta, livianas));
+        }
+    }
+
+    //Reparte las partes [lo, hi) de la frontera, cada una con su propio Trozo de salida
+    private final class Tarea extends RecursiveAction {
+        private final int lo;
+        private final int hi;
+        private final int partes;
+        private final int f;
+        private final int cubeta;
+        private final boolean livianas;
+
+        Tarea(int lo, int hi, int partes, int f, int cubeta, boolean livianas) {
+            this.lo = lo;
+            this.hi = hi;
+            this.partes = partes;
+            this.f = f;
+            this.cubeta = cubeta;
+            this.livianas = livianas;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Tarea(lo, mid, partes, f, cubeta, livianas),
+                        new Tarea(mid, hi, partes, f, cubeta, livianas));
+                return;
+            }
+            long desde = (long) f * lo / partes;
+            long hasta = (long) f * hi / partes;
+            relajarTrozo(lo, (int) desde, (int) hasta, cubeta, livianas);
+        }
+    }
+
+    private void relajarTrozo(int t, int desde, int hasta, int cubeta, boolean livianas) {
+        Trozo salida = trozos[t];
+        long base = (long) cubeta * deltaUsado;
+        for (int k = desde; k < hasta; k++) {
+            int u = frontera[k];
+            int du = distancia(estado.get(u));
+            if (livianas) {
+                //Entrada vieja: u ya bajó a una cubeta anterior y se procesó ahí
+                if (du < base) continue;
+                if (asentadoEn[u] != cubeta + 1) {
+                    asentadoEn[u] = cubeta + 1;
+                    salida.asentados.add(u);
+                }
+            }
+            int first = livianas ? inicio[u] : corte[u];
+            int end = livianas ? corte[u] : inicio[u + 1];
+            for (int e = first; e < end; e++) {
+                int v = destinos[e];
+                int nd = du + pesos[e];
+                if (nd < 0) continue; //Desborde: igual que un camino inexistente
+                if (mejorar(v, nd, u)) {
+                    salida.add((nd / deltaUsado) % numCubetas, v);
+                }
+            }
+        }
+    }
+
+    //Baja la distancia de v a nd con padre u si es menor que la actual
+    private boolean mejorar(int v, int nd, int u) {
+        long nuevo = empaquetar(nd, u);
+        long actual = estado.get(v);
+        while (distancia(actual) > nd) {
+            if (estado.compareAndSet(v, actual, nuevo)) return true;
+            actual = estado.get(v);
+        }
+        return false;
+    }
+
+    private static long empaquetar(int d, int padre) {
+        return (long) d << 32 | (padre + 1);
+    }
+
+    private static int distancia(long e) {
+        return (int) (e >>> 32);
+    }
+
+    private static int padre(long e) {
+        return (int) e - 1;
+    }
+
+    private void runSecuencial(int start) {
+        deltaUsado = 0;
+        if (csrSecuencial != csr) {
+            secuencial = new DijkstraAlgoritmo(csr);
+            csrSecuencial = csr;
+        }
+        secuencial.run(start);
+        dist = secuencial.getDistances();
+        parent = secuencial.getParents();
+        //Los arreglos son de secuencial: la próxima ejecución paralela crea los suyos
+        estado = null;
+    }
+
+    public List<Integer> getPath(int end) {
+        List<Integer> path = new ArrayList<>();
+        if (dist[end] == Integer.MAX_VALUE) return path; // Sin camino
+
+        for (int cur = end; cur != -1; cur = parent[cur]) {
+            path.add(cur);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    public int getDistance(int end) {
+        return dist[end] == Integer.MAX_VALUE ? -1 : dist[end];
+    }
+
+    public int countVictims(List<Integer> path) {
+        return csr.pathVictims(path);
+    }
+
+    //Arreglos de la última ejecución, con el mismo formato que en DijkstraAlgoritmo
+    int[] getDistances() {
+        return dist;
+    }
+
+    int[] getParents() {
+        return parent;
+    }
+}
@@ -0,0 +1,126 @@
+package TrabajoGrafosCompi;
+
+import java.util.*;
+
+/*
+  Cola de cubetas circular de Dial para Dijkstra con pesos enteros pequeños.
+  Con pesos en [0, C], todas las prioridades vivas están en [actual, actual + C],
+  así que bastan C + 1 cubetas usadas en círculo. Cada cubeta es una lista
+  doblemente enlazada guardada en arreglos int[], lo que permite decrease-key
+  en O(1) (se desengancha el nodo y se engancha en la cubeta nueva).
+  Solo sirve si las prioridades que se sacan nunca disminuyen (pesos >= 0).
+ */
+public final class DialBuckets implements ColaNodos {
+
+    //Número de cubetas (peso máximo + 1)
+    private final int numBuckets;
+
+    //Primer nodo de cada cubeta, -1 si está vacía
+    private final int[] head;
+
+    //Enlaces de la lista de cada cubeta
+    private int[] next;
+    private int[] prev;
+
+    //Prioridad actual de cada nodo y si está en la cola
+    private int[] keys;
+    private boolean[] queued;
+
+    private int size;
+
+    //Última prioridad sacada; las prioridades vivas están en [current, current + C]
+    private int current;
+
+    public DialBuckets(int capacity, int maxWeight) {
+        if (maxWeight < 0) {
+            throw new IllegalArgumentException("Las cubetas de Dial requieren pesos no negativos");
+        }
+        numBuckets = maxWeight + 1;
+        head = new int[numBuckets];
+        Arrays.fill(head, -1);
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        next = new int[capacity];
+        prev = new int[capacity];
+        keys = new int[capacity];
+        queued = new boolean[capacity];
+    }
+
+    //Peso máximo que admite esta cola
+    public int getMaxWeight() {
+        return numBuckets - 1;
+    }
+
+    @Override
+    public void reset(int n) {
+        if (n > queued.length) {
+            allocate(n);
+            Arrays.fill(head, -1);
+        } else if (size > 0) {
+            for (int b = 0; b < numBuckets; b++) {
+                for (int v = head[b]; v != -1; v = next[v]) {
+                    queued[v] = false;
+                }
+                head[b] = -1;
+            }
+        }
+        size = 0;
+        current = 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void push(int v, int key) {
+        if (queued[v]) {
+            if (key >= keys[v]) return;
+            unlink(v);
+        } else {
+            queued[v] = true;
+            size++;
+        }
+        keys[v] = key;
+        int b = key % numBuckets;
+        prev[v] = -1;
+        next[v] = head[b];
+        if (head[b] != -1) prev[head[b]] = v;
+        head[b] = v;
+    }
+
+    @Override
+    public int poll() {
+        int b = current % numBuckets;
+        //Avanzamos por el círculo hasta la primera cubeta con nodos
+        while (head[b] == -1) {
+            current++;
+            b = b + 1 == numBuckets ? 0 : b + 1;
+        }
+        int v = head[b];
+        current = keys[v];
+        unlink(v);
+        queued[v] = false;
+        size--;
+        return v;
+    }
+
+    private void unlink(int v) {
+        int p = prev[v];
+        int nx = next[v];
+        if (p != -1) {
+            next[p] = nx;
+        } else {
+            head[keys[v] % numBuckets] = nx;
+        }
+        if (nx != -1) prev[nx] = p;
+    }
+}
@@ -8,8 +8,25 @@ import java.util.*;
  */
 public class DijkstraAlgoritmo {
 
+    /*
+      Tipo de cola de prioridad a usar.
+      AUTOMATICA elige cubetas de Dial si todos los pesos son enteros no negativos
+      y el peso máximo es pequeño, y el montículo indexado en otro caso.
+     */
+    public enum Cola { AUTOMATICA, MONTICULO, CUBETAS }
+
+    //Peso máximo hasta el que AUTOMATICA usa cubetas (C + 1 cubetas en memoria)
+    public static final int MAX_PESO_CUBETAS = 1024;
+
+    //Cada cuántos nodos asentados se avisa el avance (potencia de 2 menos 1)
+    private static final int MASCARA_PROGRESO = (1 << 12) - 1;
+
     private final Graph graph;
 
+    //Cola pedida por el usuario y la que realmente se usó en la última ejecución
+    private Cola cola = Cola.AUTOMATICA;
+    private Cola colaUsada;
+
     //Distancias mínimas desde el origen
 
     private int[] dist;
@@ -19,41 +36,128 @@ public class DijkstraAlgoritmo {
 
     private int[] parent;
 
+    //Grafo compacto usado en la última ejecución
+    private GraphView csr;
+
+    //Colas de prioridad, se reutilizan entre ejecuciones
+    private IndexedMinHeap heap;
+    private DialBuckets buckets;
+
+    //Aviso de avance y cancelación, null si no se pidió
+    private Progreso progreso;
+
     public DijkstraAlgoritmo(Graph graph) {
         this.graph = graph;
     }
 
+    //Ejecuta siempre sobre un grafo fijo (el transpuesto, o un MappedGraph abierto de disco)
+    public DijkstraAlgoritmo(GraphView csr) {
+        this.graph = null;
+        this.csr = csr;
+    }
+
     public void run(int start) {
-        int n = graph.getN();
-        dist = new int[n];
-        parent = new int[n];
+        //Con las métricas apagadas los "if (Metricas.ACTIVAS)" desaparecen al compilar
+        Metricas.EventoDijkstra evento = Metricas.ACTIVAS ? Metricas.inicioDijkstra() : null;
+        long t0 = Metricas.ACTIVAS ? System.nanoTime() : 0;
+        long asentados = 0;
+        long relajaciones = 0;
+        long inserciones = 0;
+        int pico = 0;
+
+        if (graph != null) csr = graph.freeze();
+        int n = csr.getN();
+        //Los arreglos se reutilizan si el tamaño no cambió
+        if (dist == null || dist.length != n) {
+            dist = new int[n];
+            parent = new int[n];
+        }
+        ColaNodos pq = prepareQueue(n);
 
         Arrays.fill(dist, Integer.MAX_VALUE);
         Arrays.fill(parent, -1);
         dist[start] = 0;
 
-        // Cola de prioridad: {distancia, nodo}
-        PriorityQueue<int[]> pq = new PriorityQueue<>(Comparator.comparingInt(a -> a[0]));
-        pq.add(new int[]{0, start});
+        // Cola indexada por nodo: cada nodo está a lo sumo una vez (decrease-key)
+        pq.push(start, 0);
+        long t1 = Metricas.ACTIVAS ? System.nanoTime() : 0;
+        Progreso progreso = this.progreso;
+        int sacados = 0;
 
         while (!pq.isEmpty()) {
-            int[] curr = pq.poll();
-            int d = curr[0];
-            int u = curr[1];
-
-            // Si ya encontramos una distancia menor, saltamos
-            if (d > dist[u]) continue;
-
-            for (int[] edge : graph.getAdj().get(u)) {
-                int v = edge[0];
-                int w = edge[1];
-                if (dist[u] + w < dist[v]) {
-                    dist[v] = dist[u] + w;
+            //Cuenta solo si hay a quién avisar; el total es n aunque no todos sean alcanzables
+            if (progreso != null && (++sacados & MASCARA_PROGRESO) == 0) progreso.avisar(sacados, n);
+            if (Metricas.ACTIVAS) {
+                asentados++;
+                pico = Math.max(pico, pq.size());
+            }
+            int u = pq.poll();
+            int du = dist[u];
+
+            for (int e = csr.firstEdge(u), end = csr.endEdge(u); e < end; e++) {
+                int v = csr.target(e);
+                int nd = du + csr.weight(e);
+                if (nd < dist[v]) {
+                    dist[v] = nd;
                     parent[v] = u;
-                    pq.add(new int[]{dist[v], v});
+                    pq.push(v, nd);
+                    if (Metricas.ACTIVAS) inserciones++;
                 }
             }
+            if (Metricas.ACTIVAS) relajaciones += csr.endEdge(u) - csr.firstEdge(u);
+        }
+
+        if (progreso != null) progreso.avisar(n, n);
+        if (Metricas.ACTIVAS) {
+            Metricas.dijkstra(evento, start, colaUsada, asentados, relajaciones, inserciones + 1, pico,
+                    t0, t1, System.nanoTime());
+        }
+    }
+
+    public void setCola(Cola cola) {
+        this.cola = cola;
+    }
+
+    public Cola getCola() {
+        return cola;
+    }
+
+    /*
+      Progreso a avisar desde run(), o null para no avisar. Si pide cancelar,
+      run() lanza CancellationException y los resultados quedan a medias
+      hasta la siguiente ejecución.
+     */
+    public void setProgreso(Progreso progreso) {
+        this.progreso = progreso;
+    }
+
+    //Cola usada en la última ejecución (MONTICULO o CUBETAS)
+    public Cola getColaUsada() {
+        return colaUsada;
+    }
+
+    //Elige la cola según el modo pedido y los pesos del grafo, y la deja vacía
+    private ColaNodos prepareQueue(int n) {
+        boolean pesosPequenos = csr.getMinWeight() >= 0 && csr.getMaxWeight() <= MAX_PESO_CUBETAS;
+        if (cola == Cola.CUBETAS && csr.getMinWeight() < 0) {
+            throw new IllegalStateException("Las cubetas requieren distancias no negativas");
+        }
+        colaUsada = cola == Cola.CUBETAS || (cola == Cola.AUTOMATICA && pesosPequenos)
+                ? Cola.CUBETAS : Cola.MONTICULO;
+
+        if (colaUsada == Cola.CUBETAS) {
+            if (buckets == null || buckets.getMaxWeight() < csr.getMaxWeight()) {
+                buckets = new DialBuckets(n, csr.getMaxWeight());
+            }
+            buckets.reset(n);
+            return buckets;
+        }
+        if (heap == null) {
+            heap = new IndexedMinHeap(n);
+        } else {
+            heap.reset(n);
         }
+        return heap;
     }
 
     public List<Integer> getPath(int end) {
@@ -73,14 +177,18 @@ public class DijkstraAlgoritmo {
     }
 
     public int countVictims(List<Integer> path) {
-        int total = 0;
-        int[] victims = graph.getVictimas();
-        Set<Integer> visited = new HashSet<>();
-        for (int node : path) {
-            if (visited.add(node)) {
-                total += victims[node];
-            }
-        }
-        return total;
+        return (csr != null ? csr : graph.freeze()).pathVictims(path);
+    }
+
+    /*
+      Arreglos internos de la última ejecución (Integer.MAX_VALUE = no alcanzado,
+      -1 = sin padre). Se reutilizan en la siguiente llamada a run().
+     */
+    int[] getDistances() {
+        return dist;
+    }
+
+    int[] getParents() {
+        return parent;
     }
 }
@@ -0,0 +1,201 @@
+package TrabajoGrafosCompi;
+
+import java.util.*;
+
+/*
+  Dijkstra bidireccional para consultas de un origen a un destino.
+  Busca hacia adelante desde el origen y hacia atrás (sobre el grafo
+  transpuesto) desde el destino, y se detiene cuando la suma de los mínimos
+  de ambas colas ya no puede mejorar el mejor camino encontrado.
+  Normalmente asienta solo una parte pequeña del grafo.
+  La distancia es siempre la de DijkstraAlgoritmo. Si hay varios caminos
+  igual de cortos, getPath puede devolver otro que el de
+  DijkstraAlgoritmo.getPath (el desempate depende del orden en que cada
+  búsqueda asienta los nodos), y entonces countVictims también puede
+  diferir. Quien necesite exactamente la ruta de getPath debe usar
+  DijkstraAlgoritmo (o CacheCaminos).
+  El criterio de parada solo vale con distancias no negativas: si el grafo
+  tiene alguna negativa, la consulta corre DijkstraAlgoritmo completo desde
+  el origen y devuelve su camino.
+ */
+public class DijkstraBidireccional {
+
+    private final Graph graph;
+
+    //Grafo usado en la última consulta y su transpuesto
+    private GraphView csr;
+    private GraphView rev;
+
+    //Distancias y padres de cada dirección (parentB apunta hacia el destino)
+    private int[] distF;
+    private int[] distB;
+    private int[] parentF;
+    private int[] parentB;
+
+    //Marca de consulta: distF[v] solo es válida si seenF[v] == query
+    private int[] seenF;
+    private int[] seenB;
+    private int query;
+
+    private IndexedMinHeap heapF;
+    private IndexedMinHeap heapB;
+
+    //Resultado de la última consulta
+    private int source;
+    private int target;
+    private long best;
+    private int meet;
+    private int settled;
+
+    //Búsqueda completa usada cuando hay distancias negativas (null si no se usó)
+    private DijkstraAlgoritmo respaldo;
+    private GraphView grafoRespaldo;
+    private boolean usoRespaldo;
+
+    public DijkstraBidireccional(Graph graph) {
+        this.graph = graph;
+    }
+
+    //Consultas sobre un grafo fijo (por ejemplo, un MappedGraph abierto de disco)
+    public DijkstraBidireccional(GraphView csr) {
+        this.graph = null;
+        this.csr = csr;
+    }
+
+    public void query(int start, int end) {
+        if (graph != null) csr = graph.freeze();
+        int n = csr.getN();
+        source = start;
+        target = end;
+        settled = 0;
+        best = Long.MAX_VALUE;
+        meet = -1;
+        usoRespaldo = false;
+
+        if (csr.getMinWeight() < 0) {
+            //Con una arista negativa la suma de los mínimos ya no es cota inferior
+            if (grafoRespaldo != csr) {
+                respaldo = new DijkstraAlgoritmo(csr);
+                grafoRespaldo = csr;
+            }
+            respaldo.run(start);
+            usoRespaldo = true;
+            settled = n;
+            return;
+        }
+
+        rev = csr.reverse();
+        prepare(n);
+        label(distF, parentF, seenF, heapF, start, 0, -1);
+        label(distB, parentB, seenB, heapB, end, 0, -1);
+        if (start == end) {
+            best = 0;
+            meet = start;
+        }
+
+        //Si una cola se vacía, esa búsqueda ya es completa y best es el óptimo
+        while (!heapF.isEmpty() && !heapB.isEmpty()) {
+            if ((long) heapF.minKey() + heapB.minKey() >= best) break;
+            if (heapF.minKey() <= heapB.minKey()) {
+                expand(csr, heapF, distF, parentF, seenF, distB, seenB);
+            } else {
+                expand(rev, heapB, distB, parentB, seenB, distF, seenF);
+            }
+        }
+    }
+
+    //Reserva los arreglos una vez y avanza la marca de consulta
+    private void prepare(int n) {
+        if (distF == null || distF.length != n) {
+            distF = new int[n];
+            distB = new int[n];
+            parentF = new int[n];
+            parentB = new int[n];
+            seenF = new int[n];
+            seenB = new int[n];
+            heapF = new IndexedMinHeap(n);
+            heapB = new IndexedMinHeap(n);
+            query = 0;
+        } else {
+            heapF.clear();
+            heapB.clear();
+        }
+        query++;
+        if (query == 0) {
+            //Dio la vuelta el contador: limpiamos las marcas viejas
+            Arrays.fill(seenF, 0);
+            Arrays.fill(seenB, 0);
+            query = 1;
+        }
+    }
+
+    private void label(int[] dist, int[] parent, int[] seen, IndexedMinHeap heap, int v, int d, int p) {
+        seen[v] = query;
+        dist[v] = d;
+        parent[v] = p;
+        heap.push(v, d);
+    }
+
+    /*
+      Asienta el mínimo de una dirección y relaja sus aristas. Cada vez que
+      llega a un nodo ya alcanzado por la otra dirección, prueba ese encuentro.
+     */
+    private void expand(GraphView g, IndexedMinHeap heap, int[] dist, int[] parent, int[] seen,
+                        int[] otherDist, int[] otherSeen) {
+        int u = heap.poll();
+        settled++;
+        int du = dist[u];
+        for (int e = g.firstEdge(u), end = g.endEdge(u); e < end; e++) {
+            int v = g.target(e);
+            int nd = du + g.weight(e);
+            if (seen[v] != query || nd < dist[v]) {
+                label(dist, parent, seen, heap, v, nd, u);
+                if (otherSeen[v] == query && (long) nd + otherDist[v] < best) {
+                    best = (long) nd + otherDist[v];
+                    meet = v;
+                }
+            }
+        }
+    }
+
+    //Camino más corto de la última consulta, vacío si no existe
+    public List<Integer> getPath() {
+        if (usoRespaldo) return respaldo.getPath(target);
+        List<Integer> path = new ArrayList<>();
+        if (meet == -1) return path; // Sin camino
+
+        // Del punto de encuentro hacia el origen, luego lo volteamos
+        for (int cur = meet; cur != -1; cur = parentF[cur]) {
+            path.add(cur);
+        }
+        Collections.reverse(path);
+        // Del punto de encuentro hacia el destino
+        for (int cur = parentB[meet]; cur != -1; cur = parentB[cur]) {
+            path.add(cur);
+        }
+        return path;
+    }
+
+    //Distancia de la última consulta, -1 si no hay camino
+    public int getDistance() {
+        if (usoRespaldo) return respaldo.getDistance(target);
+        return meet == -1 ? -1 : (int) best;
+    }
+
+    public int countVictims(List<Integer> path) {
+        return (csr != null ? csr : graph.freeze()).pathVictims(path);
+    }
+
+    //Nodos asentados entre ambas direcciones en la última consulta (n si se usó el respaldo)
+    public int getSettled() {
+        return settled;
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    public int getTarget() {
+        return target;
+    }
+}
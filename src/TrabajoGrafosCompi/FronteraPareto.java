@@ -0,0 +1,421 @@
+package TrabajoGrafosCompi;
+
+import java.util.*;
+
+/*
+  Frontera de Pareto de las rutas de origen a destino con dos criterios:
+  menor distancia y más víctimas. Una ruta está en la frontera si ninguna
+  otra tiene menos (o igual) distancia y más (o iguales) víctimas. Los dos
+  extremos son el camino de Dijkstra y el de más víctimas; en el medio
+  quedan los compromisos ("las más víctimas llegando antes del amanecer").
+
+  Búsqueda por etiquetas (label-setting, Martins): cada etiqueta es una ruta
+  parcial (nodo, distancia, víctimas, etiqueta padre) y se sacan de una cola
+  en orden de distancia (y más víctimas primero en empates). Las que ya
+  salieron en un nodo tienen distancia menor o igual que cualquier etiqueta
+  nueva ahí, así que la dominancia se decide por las víctimas.
+
+  Las rutas son caminos simples (sin repetir nodos) y las víctimas se cuentan
+  como en countVictims: cada nodo una vez, incluido el origen. Con ciclos no
+  alcanza con comparar valores: una etiqueta con menos víctimas puede seguir
+  por un nodo que la que la domina ya visitó. Por eso una etiqueta solo se
+  poda contra otra asentada en el mismo nodo con más (o iguales) víctimas y
+  cuyos nodos sean un subconjunto de los suyos: todo lo que la podada podía
+  recorrer después también lo puede recorrer la dominante, y la frontera es
+  exacta. Dos atajos baratos evitan casi siempre esa comparación:
+    - si la etiqueta supera mejorVictimas[v] (las máximas víctimas asentadas
+      en v), nada la domina;
+    - en grafos sin ciclos ningún camino posterior puede repetir nodos, así
+      que comparar con mejorVictimas[v] alcanza.
+  En el destino tampoco hace falta: desde ahí no se sigue.
+
+  Las etiquetas viven en arreglos primitivos que se reutilizan entre
+  consultas (sin un objeto por etiqueta). Cotas opcionales que cortan la
+  búsqueda antes:
+    - setMaxDistancia: descarta etiquetas que ni por el camino más corto
+      restante (Dijkstra sobre el grafo transpuesto) llegan a tiempo.
+    - setMinVictimas: descarta etiquetas que ni juntando todas las víctimas
+      alcanzables hasta el destino (MaxVictimasScc sobre el transpuesto)
+      llegan al mínimo.
+ */
+public class FronteraPareto {
+
+    //Una ruta de la frontera
+    public static final class Ruta {
+        private final List<Integer> camino;
+        private final int distancia;
+        private final int victimas;
+
+        Ruta(List<Integer> camino, int distancia, int victimas) {
+            this.camino = Collections.unmodifiableList(camino);
+            this.distancia = distancia;
+            this.victimas = victimas;
+        }
+
+        public List<Integer> getCamino() {
+            return camino;
+        }
+
+        public int getDistancia() {
+            return distancia;
+        }
+
+        public int getVictimas() {
+            return victimas;
+        }
+
+        @Override
+        public String toString() {
+            return camino + " (distancia " + distancia + ", víctimas " + victimas + ")";
+        }
+    }
+
+    //Etiquetas creadas por consulta como máximo, para que un grafo enorme no agote la memoria
+    public static final int MAX_ETIQUETAS = 1 << 22;
+
+    //Cada cuántas etiquetas sacadas se avisa el avance (potencia de 2 menos 1)
+    private static final int MASCARA_PROGRESO = (1 << 12) - 1;
+
+    private final Graph graph;
+
+    //Grafo compacto usado en la última ejecución
+    private GraphView csr;
+
+    private int maxDistancia = Integer.MAX_VALUE;
+    private int minVictimas = Integer.MIN_VALUE;
+    private int maxEtiquetas = MAX_ETIQUETAS;
+    private Progreso progreso;
+
+    //Etiquetas: nodo, distancia, víctimas y etiqueta padre (-1 en el origen)
+    private int[] nodo = new int[64];
+    private int[] dist = new int[64];
+    private int[] victimas = new int[64];
+    private int[] padre = new int[64];
+    private int etiquetas;
+
+    //Montículo binario de etiquetas pendientes, con clave (distancia, -víctimas)
+    private long[] claves = new long[64];
+    private int[] pendientes = new int[64];
+    private int tam;
+
+    //Máximas víctimas entre las etiquetas que ya salieron en cada nodo
+    private int[] mejorVictimas;
+
+    //Distancia de la primera etiqueta que salió en cada nodo (la mínima)
+    private int[] primeraDist;
+
+    //Etiquetas asentadas en cada nodo: lista enlazada desde primeraAsentada[v] por sigAsentada[]
+    private int[] primeraAsentada;
+    private int[] sigAsentada = new int[64];
+
+    //Marcas para comparar nodos de dos rutas (válidas si == marca)
+    private int[] marcaNodo;
+    private int[] marcaEtiqueta = new int[64];
+    private int marca;
+
+    //Grafo del que se sabe si tiene ciclos
+    private GraphView grafoAciclico;
+    private boolean aciclico;
+
+    //Cotas hacia el destino, sobre el grafo transpuesto
+    private GraphView rev;
+    private DijkstraAlgoritmo haciaDestino;
+    private MaxVictimasScc victimasHaciaDestino;
+
+    //Etiquetas descartadas por dominancia o por las cotas en la última consulta
+    private long podadas;
+
+    public FronteraPareto(Graph graph) {
+        this.graph = graph;
+    }
+
+    //Ejecuta sobre un grafo fijo (por ejemplo, un MappedGraph abierto de disco)
+    public FronteraPareto(GraphView csr) {
+        this.graph = null;
+        this.csr = csr;
+    }
+
+    //Distancia máxima de las rutas (Integer.MAX_VALUE = sin límite)
+    public void setMaxDistancia(int maxDistancia) {
+        this.maxDistancia = maxDistancia;
+    }
+
+    //Víctimas mínimas de las rutas (Integer.MIN_VALUE = sin mínimo)
+    public void setMinVictimas(int minVictimas) {
+        this.minVictimas = minVictimas;
+    }
+
+    //Límite de etiquetas por consulta; al superarlo calcular() lanza IllegalStateException
+    public void setMaxEtiquetas(int maxEtiquetas) {
+        this.maxEtiquetas = maxEtiquetas;
+    }
+
+    /*
+      Progreso a avisar desde calcular(), o null para no avisar. El avance
+      es la cantidad de etiquetas creadas sobre el tope (setMaxEtiquetas):
+      la frontera no se sabe de antemano cuántas necesita. Si pide cancelar,
+      calcular() lanza CancellationException.
+     */
+    public void setProgreso(Progreso progreso) {
+        this.progreso = progreso;
+    }
+
+    /*
+      Calcula la frontera de origen a destino, ordenada por distancia
+      creciente (y por lo tanto víctimas crecientes). Vacía si no hay
+      camino o ninguno cumple las cotas.
+     */
+    public List<Ruta> calcular(int origen, int destino) {
+        if (graph != null) csr = graph.freeze();
+        if (csr.getMinWeight() < 0) {
+            throw new IllegalStateException("La frontera de Pareto requiere distancias no negativas");
+        }
+        int n = csr.getN();
+        if (mejorVictimas == null || mejorVictimas.length != n) {
+            mejorVictimas = new int[n];
+            primeraDist = new int[n];
+            primeraAsentada = new int[n];
+            marcaNodo = new int[n];
+            marca = 0;
+        }
+        Arrays.fill(mejorVictimas, Integer.MIN_VALUE);
+        Arrays.fill(primeraAsentada, -1);
+        if (grafoAciclico != csr) {
+            grafoAciclico = csr;
+            aciclico = sinCiclos(csr);
+        }
+        etiquetas = 0;
+        tam = 0;
+        podadas = 0;
+
+        //Distancia mínima de cada nodo al destino: poda lo que no llega o no llega a tiempo
+        if (rev != csr.reverse()) {
+            rev = csr.reverse();
+            haciaDestino = new DijkstraAlgoritmo(rev);
+            victimasHaciaDestino = new MaxVictimasScc(rev);
+        }
+        haciaDestino.run(destino);
+        int[] falta = haciaDestino.getDistances();
+        boolean cotaVictimas = minVictimas != Integer.MIN_VALUE;
+        if (cotaVictimas) victimasHaciaDestino.run(destino);
+        int victimasDestino = csr.victims(destino);
+
+        List<Ruta> frontera = new ArrayList<>();
+        if (falta[origen] == Integer.MAX_VALUE || falta[origen] > maxDistancia) return frontera;
+        push(nuevaEtiqueta(origen, 0, csr.victims(origen), -1));
+
+        Progreso progreso = this.progreso;
+        int sacadas = 0;
+        while (tam > 0) {
+            if (progreso != null && (++sacadas & MASCARA_PROGRESO) == 0) progreso.avisar(etiquetas, maxEtiquetas);
+            int l = pop();
+            int u = nodo[l];
+            int du = dist[l];
+            int cu = victimas[l];
+            //Todas las que quedan tienen más distancia: ninguna entra en el límite
+            if (du > maxDistancia) break;
+            //Dominada por otra que salió antes en el mismo nodo (menos distancia, más víctimas)
+            if (dominada(padre[l], u, cu, destino)) {
+                podadas++;
+                continue;
+            }
+            if (mejorVictimas[u] == Integer.MIN_VALUE) primeraDist[u] = du;
+            mejorVictimas[u] = Math.max(mejorVictimas[u], cu);
+            sigAsentada[l] = primeraAsentada[u];
+            primeraAsentada[u] = l;
+
+            if (u == destino) {
+                if (cu >= minVictimas) {
+                    //Con aristas de peso 0 puede llegar después una de igual distancia y más víctimas
+                    int ultima = frontera.size() - 1;
+                    if (ultima >= 0 && frontera.get(ultima).getDistancia() == du) frontera.remove(ultima);
+                    frontera.add(ruta(l));
+                }
+                //Un camino simple no vuelve a pasar por el destino
+                continue;
+            }
+
+            for (int e = csr.firstEdge(u), end = csr.endEdge(u); e < end; e++) {
+                int v = csr.target(e);
+                int dv = du + csr.weight(e);
+                if (dv < 0 || falta[v] == Integer.MAX_VALUE || (long) dv + falta[v] > maxDistancia) {
+                    podadas++;
+                    continue;
+                }
+                int cv = cu + csr.victims(v);
+                if (dominada(l, v, cv, destino)) {
+                    podadas++;
+                    continue;
+                }
+                if (cotaVictimas && v != destino
+                        && (long) cv + victimasHaciaDestino.getMaxVictima(v) + victimasDestino < minVictimas) {
+                    podadas++;
+                    continue;
+                }
+                //Solo nodos que ya tienen alguna etiqueta asentada pueden estar en el camino
+                if (mejorVictimas[v] != Integer.MIN_VALUE && enCamino(l, v)) continue;
+                push(nuevaEtiqueta(v, dv, cv, l));
+            }
+        }
+        if (progreso != null) progreso.avisar(maxEtiquetas, maxEtiquetas);
+        return frontera;
+    }
+
+    //Etiquetas descartadas por dominancia o cotas en la última consulta
+    public long getPodadas() {
+        return podadas;
+    }
+
+    //Etiquetas creadas en la última consulta
+    public int getEtiquetas() {
+        return etiquetas;
+    }
+
+    private int nuevaEtiqueta(int v, int d, int c, int p) {
+        if (etiquetas == maxEtiquetas) {
+            throw new IllegalStateException("La frontera superó " + maxEtiquetas
+                    + " etiquetas; usar setMaxDistancia o setMinVictimas para acotarla");
+        }
+        if (etiquetas == nodo.length) {
+            int cap = etiquetas * 2;
+            nodo = Arrays.copyOf(nodo, cap);
+            dist = Arrays.copyOf(dist, cap);
+            victimas = Arrays.copyOf(victimas, cap);
+            padre = Arrays.copyOf(padre, cap);
+            sigAsentada = Arrays.copyOf(sigAsentada, cap);
+            marcaEtiqueta = Arrays.copyOf(marcaEtiqueta, cap);
+        }
+        nodo[etiquetas] = v;
+        dist[etiquetas] = d;
+        victimas[etiquetas] = c;
+        padre[etiquetas] = p;
+        return etiquetas++;
+    }
+
+    /*
+      true si una etiqueta en v con c víctimas, cuya ruta es la de la
+      etiqueta p más v, está dominada por una ya asentada en v: con c o más
+      víctimas y sin nodos fuera de esa ruta.
+     */
+    private boolean dominada(int p, int v, int c, int destino) {
+        if (c > mejorVictimas[v]) return false;
+        if (aciclico || v == destino) return true;
+
+        //Marcar nodos y etiquetas de la ruta candidata (solo si hay con quién comparar)
+        marca++;
+        if (marca == 0) {
+            Arrays.fill(marcaNodo, 0);
+            Arrays.fill(marcaEtiqueta, 0);
+            marca = 1;
+        }
+        marcaNodo[v] = marca;
+        for (int k = p; k != -1; k = padre[k]) {
+            marcaNodo[nodo[k]] = marca;
+            marcaEtiqueta[k] = marca;
+        }
+        for (int a = primeraAsentada[v]; a != -1; a = sigAsentada[a]) {
+            if (victimas[a] >= c && subconjunto(padre[a])) return true;
+        }
+        return false;
+    }
+
+    //true si todos los nodos de la ruta de la etiqueta a están marcados
+    private boolean subconjunto(int a) {
+        for (int k = a; k != -1; k = padre[k]) {
+            //Desde un ancestro común el resto de la ruta es la misma
+            if (marcaEtiqueta[k] == marca) return true;
+            if (marcaNodo[nodo[k]] != marca) return false;
+        }
+        return true;
+    }
+
+    //Orden topológico de Kahn: true si recorre todos los nodos
+    private static boolean sinCiclos(GraphView g) {
+        int n = g.getN();
+        int[] entrantes = new int[n];
+        for (int e = 0, m = g.getM(); e < m; e++) entrantes[g.target(e)]++;
+        int[] cola = new int[n];
+        int fin = 0;
+        for (int v = 0; v < n; v++) {
+            if (entrantes[v] == 0) cola[fin++] = v;
+        }
+        for (int i = 0; i < fin; i++) {
+            int u = cola[i];
+            for (int e = g.firstEdge(u), end = g.endEdge(u); e < end; e++) {
+                if (--entrantes[g.target(e)] == 0) cola[fin++] = g.target(e);
+            }
+        }
+        return fin == n;
+    }
+
+    /*
+      true si v ya está en la ruta de la etiqueta l. Las distancias bajan
+      hacia el origen y ninguna etiqueta de v tiene menos que primeraDist[v],
+      así que se deja de subir al pasar esa distancia: en la práctica v, si
+      está, queda a pocos pasos (en una grilla, casi siempre el abuelo).
+     */
+    private boolean enCamino(int l, int v) {
+        int minima = primeraDist[v];
+        for (int k = l; k != -1 && dist[k] >= minima; k = padre[k]) {
+            if (nodo[k] == v) return true;
+        }
+        return false;
+    }
+
+    private Ruta ruta(int l) {
+        List<Integer> camino = new ArrayList<>();
+        for (int k = l; k != -1; k = padre[k]) {
+            camino.add(nodo[k]);
+        }
+        Collections.reverse(camino);
+        return new Ruta(camino, dist[l], victimas[l]);
+    }
+
+    /*
+      Clave de orden: distancia en los 32 bits altos y víctimas invertidas
+      en los bajos, para que en empates salga primero la de más víctimas.
+     */
+    private long clave(int l) {
+        return (long) dist[l] << 32 | (0x7fffffffL - victimas[l]);
+    }
+
+    private void push(int l) {
+        if (tam == pendientes.length) {
+            pendientes = Arrays.copyOf(pendientes, tam * 2);
+            claves = Arrays.copyOf(claves, tam * 2);
+        }
+        long k = clave(l);
+        int i = tam++;
+        while (i > 0) {
+            int p = (i - 1) >>> 1;
+            if (claves[p] <= k) break;
+            claves[i] = claves[p];
+            pendientes[i] = pendientes[p];
+            i = p;
+        }
+        claves[i] = k;
+        pendientes[i] = l;
+    }
+
+    private int pop() {
+        int res = pendientes[0];
+        tam--;
+        if (tam > 0) {
+            long k = claves[tam];
+            int l = pendientes[tam];
+            int i = 0;
+            while (true) {
+                int c = 2 * i + 1;
+                if (c >= tam) break;
+                if (c + 1 < tam && claves[c + 1] < claves[c]) c++;
+                if (claves[c] >= k) break;
+                claves[i] = claves[c];
+                pendientes[i] = pendientes[c];
+                i = c;
+            }
+            claves[i] = k;
+            pendientes[i] = l;
+        }
+        return res;
+    }
+}
@@ -1,6 +1,7 @@
 package TrabajoGrafosCompi;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class Graph {
 
@@ -10,20 +11,49 @@ public class Graph {
     //Victimas almacenadas por nodo
     private final int[] victimas;
 
-    //Lista de adyacencia: adj.get(u) = lisya de {v, distancia}
-    private final List<List<int[]>> adj;
+    //Aristas en orden de inserción, en arreglos primitivos paralelos {u, v, d}
+    private int[] edgeFrom;
+    private int[] edgeTo;
+    private int[] edgeWeight;
 
-    //Lista plana de todas las arustas para Bellman-Ford
-    private final List<int[]> edges; //Serian {u, v, d}
+    //Número de aristas agregadas
+    private int m;
+
+    //Peso máximo y mínimo vistos mientras se construye el grafo
+    private int maxWeight = 0;
+    private int minWeight = 0;
+
+    /*
+      Cuántas aristas tienen exactamente el peso máximo y el mínimo (para
+      setWeight). Si la última arista con uno de esos pesos se aleja de él, la
+      cota nueva no se conoce sin recorrer todo: se marca cotasViejas y se
+      recalcula recién cuando alguien la pide.
+     */
+    private int cantMax;
+    private int cantMin;
+    private boolean cotasViejas;
+
+    //Última versión compacta (CSR) generada por freeze(), null si hubo cambios
+    private CsrGraph frozen;
+
+    //Las versiones salen de un contador global: dos grafos distintos nunca comparten versión
+    private static final AtomicLong VERSIONES = new AtomicLong();
+
+    //Cambia cada vez que se modifica el grafo (sirve para invalidar resultados guardados)
+    private long version = VERSIONES.incrementAndGet();
 
     public Graph(int n) {
+        this(n, 16);
+    }
+
+    //Permite reservar espacio para las aristas cuando ya se conoce m
+    public Graph(int n, int expectedEdges) {
         this.n = n;
         this.victimas = new int[n];
-        this.adj = new ArrayList<>();
-        this.edges = new ArrayList<>();
-        for (int i = 0; i < n; i++) {
-            adj.add(new ArrayList<>());
-        }
+        int cap = Math.max(expectedEdges, 1);
+        this.edgeFrom = new int[cap];
+        this.edgeTo = new int[cap];
+        this.edgeWeight = new int[cap];
     }
 
     /*
@@ -33,10 +63,113 @@ public class Graph {
     c -> son las victimas en el nodo v
      */
     public void addEdge(int u, int v, int d, int c) {
-        adj.get(u).add(new int[]{v, d});
-        edges.add(new int[]{u, v, d});
+        if (u < 0 || u >= n || v < 0 || v >= n) {
+            throw new IndexOutOfBoundsException("Arista " + u + " -> " + v + " fuera de rango (0 a " + (n - 1) + ")");
+        }
+        if (m == edgeFrom.length) {
+            int cap = edgeFrom.length * 2;
+            edgeFrom = Arrays.copyOf(edgeFrom, cap);
+            edgeTo = Arrays.copyOf(edgeTo, cap);
+            edgeWeight = Arrays.copyOf(edgeWeight, cap);
+        }
+        edgeFrom[m] = u;
+        edgeTo[m] = v;
+        edgeWeight[m] = d;
+        if (m == 0) {
+            maxWeight = minWeight = d;
+            cantMax = cantMin = 0;
+            cotasViejas = false;
+        }
+        if (!cotasViejas) contarPeso(d);
+        m++;
         //Las victimas se asignan al nodo destino
         victimas[v] = c;
+        frozen = null;
+        version = VERSIONES.incrementAndGet();
+    }
+
+    /*
+      Cambia la distancia de la i-ésima arista (en orden de inserción, 0 a m-1).
+      Las cotas se mantienen contando cuántas aristas están en el mínimo y en
+      el máximo, en O(1). Solo si la que cambia era la última con ese peso y se
+      aleja de él quedan marcadas para recalcular en el próximo
+      getMinWeight/getMaxWeight/freeze.
+     */
+    public void setWeight(int i, int d) {
+        if (i < 0 || i >= m) {
+            throw new IndexOutOfBoundsException("Arista " + i + " fuera de rango (0 a " + (m - 1) + ")");
+        }
+        int old = edgeWeight[i];
+        edgeWeight[i] = d;
+        if (!cotasViejas) {
+            if (old == minWeight) cantMin--;
+            if (old == maxWeight) cantMax--;
+            if ((cantMin == 0 && d > minWeight) || (cantMax == 0 && d < maxWeight)) {
+                cotasViejas = true;
+            } else {
+                //Si quedó en 0 el nuevo peso pasa a ser la cota (d <= min o d >= max)
+                if (cantMin == 0) minWeight = d;
+                if (cantMax == 0) maxWeight = d;
+                contarPeso(d);
+            }
+        }
+        frozen = null;
+        version = VERSIONES.incrementAndGet();
+    }
+
+    //Suma una arista de peso d a las cotas y sus contadores
+    private void contarPeso(int d) {
+        if (d < minWeight) {
+            minWeight = d;
+            cantMin = 1;
+        } else if (d == minWeight) {
+            cantMin++;
+        }
+        if (d > maxWeight) {
+            maxWeight = d;
+            cantMax = 1;
+        } else if (d == maxWeight) {
+            cantMax++;
+        }
+    }
+
+    //Recalcula cotas y contadores recorriendo todas las aristas (si quedaron viejas)
+    private void recontarPesos() {
+        if (!cotasViejas) return;
+        int min = edgeWeight[0];
+        int max = min;
+        for (int k = 1; k < m; k++) {
+            min = Math.min(min, edgeWeight[k]);
+            max = Math.max(max, edgeWeight[k]);
+        }
+        int cMin = 0;
+        int cMax = 0;
+        for (int k = 0; k < m; k++) {
+            if (edgeWeight[k] == min) cMin++;
+            if (edgeWeight[k] == max) cMax++;
+        }
+        minWeight = min;
+        maxWeight = max;
+        cantMin = cMin;
+        cantMax = cMax;
+        cotasViejas = false;
+    }
+
+    /*
+      Compacta el grafo en arreglos planos (CSR). El resultado es inmutable y se
+      reutiliza mientras no se agreguen aristas nuevas.
+     */
+    public CsrGraph freeze() {
+        if (frozen == null) {
+            recontarPesos();
+            frozen = new CsrGraph(n, m, victimas, edgeFrom, edgeTo, edgeWeight, minWeight, maxWeight);
+        }
+        return frozen;
+    }
+
+    //Versión actual del grafo, distinta después de cada cambio
+    public long getVersion() {
+        return version;
     }
 
     //Retornamos el número de nodos
@@ -44,18 +177,25 @@ public class Graph {
         return n;
     }
 
+    //Retornamos el número de aristas
+    public int getM() {
+        return m;
+    }
+
     //Retornamos el número de victimas por nodo
     public int[] getVictimas() {
         return victimas;
     }
 
-    //Retornamos la lista de adyacencia
-    public List<List<int[]>> getAdj() {
-        return adj;
+    //Peso (distancia) máximo entre todas las aristas, 0 si no hay aristas
+    public int getMaxWeight() {
+        recontarPesos();
+        return maxWeight;
     }
 
-    //Retornamos la lista plana de aristas {u, v, d}
-    public List<int[]> getEdges() {
-        return edges;
+    //Peso (distancia) mínimo entre todas las aristas, 0 si no hay aristas
+    public int getMinWeight() {
+        recontarPesos();
+        return minWeight;
     }
 }
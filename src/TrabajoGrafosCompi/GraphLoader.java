@@ -0,0 +1,329 @@
+package TrabajoGrafosCompi;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/*
+  Carga un grafo en el formato de la interfaz:
+      n m
+      u v d c      (una arista por línea, m líneas)
+  sin Scanner ni expresiones regulares: los números se leen byte a byte.
+  Los archivos se leen por memoria mapeada (FileChannel.map), así que el
+  texto nunca se copia completo al heap; si el archivo es grande, el cuerpo
+  se parte en trozos que terminan en fin de línea y se procesan en paralelo.
+  Los errores indican la línea: "Línea 12: se esperaban 4 números (u v d c)".
+ */
+public final class GraphLoader {
+
+    //Tamaño mínimo de archivo para partirlo en trozos paralelos
+    private static final long UMBRAL_PARALELO = 8L << 20;
+
+    //Tamaño máximo de un trozo (cada trozo se mapea por separado)
+    private static final long MAX_TROZO = 256L << 20;
+
+    //Bytes que se miran al inicio para encontrar la línea "n m"
+    private static final int MAX_CABECERA = 1 << 20;
+
+    private GraphLoader() {
+    }
+
+    //Lee el grafo desde un texto (por ejemplo, el JTextArea de la interfaz)
+    public static Graph parse(String text) {
+        ByteBuffer buf = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        Header h = parseHeader(buf, 0, buf.limit());
+        Chunk chunk = parseChunk(buf, h.bodyStart, buf.limit(), h.n);
+        return build(h, Collections.singletonList(chunk));
+    }
+
+    //Lee el grafo desde un archivo, en paralelo si es grande
+    public static Graph load(Path file) throws IOException {
+        return load(file, ForkJoinPool.commonPool());
+    }
+
+    public static Graph load(Path file, ExecutorService pool) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            ByteBuffer head = ch.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, MAX_CABECERA));
+            Header h = parseHeader(head, 0, head.limit());
+
+            List<long[]> ranges = split(ch, h.bodyStart, size);
+            List<Chunk> chunks = new ArrayList<>();
+            if (ranges.size() == 1) {
+                chunks.add(parseMapped(ch, ranges.get(0), h.n));
+            } else {
+                List<Callable<Chunk>> tasks = new ArrayList<>();
+                for (long[] r : ranges) {
+                    tasks.add(() -> parseMapped(ch, r, h.n));
+                }
+                try {
+                    for (Future<Chunk> f : pool.invokeAll(tasks)) {
+                        chunks.add(f.get());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Carga interrumpida");
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof IOException) throw (IOException) cause;
+                    if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+                    throw new IOException(cause);
+                }
+            }
+            return build(h, chunks);
+        }
+    }
+
+    private static Chunk parseMapped(FileChannel ch, long[] range, int n) throws IOException {
+        ByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, range[0], range[1] - range[0]);
+        return parseChunk(buf, 0, buf.limit(), n);
+    }
+
+    /*
+      Parte [start, size) en trozos que terminan justo después de un '\n'.
+      Cada par {inicio, fin} es un rango de bytes del archivo.
+     */
+    private static List<long[]> split(FileChannel ch, long start, long size) throws IOException {
+        List<long[]> ranges = new ArrayList<>();
+        long body = size - start;
+        if (body < UMBRAL_PARALELO) {
+            ranges.add(new long[]{start, size});
+            return ranges;
+        }
+        int parts = Math.max(Runtime.getRuntime().availableProcessors() * 4, (int) (body / MAX_TROZO) + 1);
+        long step = Math.min(MAX_TROZO, Math.max(UMBRAL_PARALELO / 4, body / parts));
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long from = start;
+        while (from < size) {
+            long to = Math.min(size, from + step);
+            //Avanzamos hasta el siguiente fin de línea
+            while (to < size) {
+                probe.clear();
+                int read = ch.read(probe, to);
+                if (read <= 0) {
+                    to = size;
+                    break;
+                }
+                int nl = -1;
+                for (int i = 0; i < read; i++) {
+                    if (probe.get(i) == '\n') {
+                        nl = i;
+                        break;
+                    }
+                }
+                if (nl >= 0) {
+                    to += nl + 1;
+                    break;
+                }
+                to += read;
+            }
+            ranges.add(new long[]{from, to});
+            from = to;
+        }
+        return ranges;
+    }
+
+    //Primera línea no vacía: "n m"
+    private static Header parseHeader(ByteBuffer buf, int from, int to) {
+        Tokenizer t = new Tokenizer(buf, from, to);
+        int line = 1;
+        try {
+            while (true) {
+                int count = t.readLine(2, line);
+                if (count == Tokenizer.EOF) {
+                    throw error(line, "falta la línea \"n m\"");
+                }
+                if (count > 0) {
+                    if (count != 2) throw error(line, "se esperaban 2 números (n m)");
+                    int n = t.values[0];
+                    int m = t.values[1];
+                    if (n < 0 || m < 0) throw error(line, "n y m no pueden ser negativos");
+                    return new Header(n, m, t.pos, line);
+                }
+                line++;
+            }
+        } catch (LineError e) {
+            throw new IllegalArgumentException("Línea " + e.line + ": " + e.getMessage());
+        }
+    }
+
+    /*
+      Procesa las líneas "u v d c" de [from, to). Las líneas se cuentan desde 0
+      dentro del trozo; el número global se calcula al juntar los trozos.
+     */
+    private static Chunk parseChunk(ByteBuffer buf, int from, int to, int n) {
+        Chunk c = new Chunk(Math.max(16, Math.min((to - from) / 16, 1 << 20)));
+        Tokenizer t = new Tokenizer(buf, from, to);
+        try {
+            while (true) {
+                int count = t.readLine(4, c.lines + 1);
+                if (count == Tokenizer.EOF) break;
+                c.lines++;
+                if (count == 0) continue;
+                if (count != 4) throw error(c.lines, "se esperaban 4 números (u v d c)");
+                int[] v = t.values;
+                if (v[0] < 0 || v[0] >= n || v[1] < 0 || v[1] >= n) {
+                    throw error(c.lines, "nodo fuera de rango (0 a " + (n - 1) + ")");
+                }
+                c.add(v[0], v[1], v[2], v[3]);
+            }
+        } catch (LineError e) {
+            c.errorLine = e.line;
+            c.error = e.getMessage();
+        }
+        return c;
+    }
+
+    //Junta los trozos en orden y arma el Graph (las víctimas se asignan en orden de archivo)
+    private static Graph build(Header h, List<Chunk> chunks) {
+        int linesBefore = h.line;
+        long total = 0;
+        for (Chunk c : chunks) {
+            if (c.error != null) {
+                throw new IllegalArgumentException("Línea " + (linesBefore + c.errorLine) + ": " + c.error);
+            }
+            linesBefore += c.lines;
+            total += c.count;
+        }
+        if (total != h.m) {
+            throw new IllegalArgumentException("Se esperaban " + h.m + " aristas y se encontraron " + total);
+        }
+        Graph graph = new Graph(h.n, h.m);
+        for (Chunk c : chunks) {
+            for (int i = 0; i < c.count; i++) {
+                graph.addEdge(c.u[i], c.v[i], c.d[i], c.c[i]);
+            }
+        }
+        return graph;
+    }
+
+    private static LineError error(int line, String msg) {
+        return new LineError(line, msg);
+    }
+
+    //Error de formato con el número de línea relativo al trozo
+    private static final class LineError extends IllegalArgumentException {
+        private static final long serialVersionUID = 1L;
+        final int line;
+
+        LineError(int line, String msg) {
+            super(msg);
+            this.line = line;
+        }
+    }
+
+    private static final class Header {
+        final int n;
+        final int m;
+        final int bodyStart;
+        final int line;
+
+        Header(int n, int m, int bodyStart, int line) {
+            this.n = n;
+            this.m = m;
+            this.bodyStart = bodyStart;
+            this.line = line;
+        }
+    }
+
+    //Aristas leídas de un trozo, en arreglos primitivos
+    private static final class Chunk {
+        int[] u, v, d, c;
+        int count;
+        int lines;
+        int errorLine;
+        String error;
+
+        Chunk(int cap) {
+            u = new int[cap];
+            v = new int[cap];
+            d = new int[cap];
+            c = new int[cap];
+        }
+
+        void add(int a, int b, int w, int vic) {
+            if (count == u.length) {
+                int cap = count * 2;
+                u = Arrays.copyOf(u, cap);
+                v = Arrays.copyOf(v, cap);
+                d = Arrays.copyOf(d, cap);
+                c = Arrays.copyOf(c, cap);
+            }
+            u[count] = a;
+            v[count] = b;
+            d[count] = w;
+            c[count] = vic;
+            count++;
+        }
+    }
+
+    /*
+      Lector de enteros sobre un ByteBuffer. readLine lee los números de una
+      línea (hasta max) en values[] y deja pos al inicio de la siguiente.
+     */
+    private static final class Tokenizer {
+        static final int EOF = -1;
+
+        final ByteBuffer buf;
+        final int end;
+        int pos;
+        final int[] values = new int[4];
+
+        Tokenizer(ByteBuffer buf, int from, int to) {
+            this.buf = buf;
+            this.pos = from;
+            this.end = to;
+        }
+
+        int readLine(int max, int line) {
+            if (pos >= end) return EOF;
+            int count = 0;
+            while (pos < end) {
+                byte b = buf.get(pos);
+                if (b == '\n') {
+                    pos++;
+                    return count;
+                }
+                if (b == ' ' || b == '\t' || b == '\r') {
+                    pos++;
+                    continue;
+                }
+                if (count == max) throw error(line, "sobran números en la línea");
+                values[count++] = readInt(line);
+            }
+            return count;
+        }
+
+        private int readInt(int line) {
+            boolean neg = false;
+            if (buf.get(pos) == '-') {
+                neg = true;
+                pos++;
+            }
+            long value = 0;
+            int digits = 0;
+            while (pos < end) {
+                byte b = buf.get(pos);
+                if (b < '0' || b > '9') break;
+                value = value * 10 + (b - '0');
+                if (value > Integer.MAX_VALUE + 1L) throw error(line, "número demasiado grande");
+                digits++;
+                pos++;
+            }
+            if (digits == 0 || (pos < end && !isSeparator(buf.get(pos)))) {
+                throw error(line, "valor no numérico");
+            }
+            value = neg ? -value : value;
+            if (value > Integer.MAX_VALUE) throw error(line, "número demasiado grande");
+            return (int) value;
+        }
+
+        private static boolean isSeparator(byte b) {
+            return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+        }
+    }
+}
@@ -3,6 +3,7 @@ package TrabajoGrafosCompi;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.geom.*;
+import java.awt.image.BufferedImage;
 import java.util.*;
 import java.util.List;
 
@@ -22,6 +23,30 @@ public class GraphPanel extends JPanel {
      */
     private static final int MARGIN = 60;
 
+    /*
+      Desde esta cantidad de nodos se dibuja con menos detalle: nodos como
+      puntos, sin etiquetas ni puntas de flecha, y aristas agrupadas por píxel
+     */
+    private static final int LOD_NODES = 200;
+
+    //Radio de los nodos en el modo de menos detalle
+    private static final int LOD_RADIUS = 3;
+
+    //Tamaño en píxeles de la celda con la que se agrupan las aristas
+    private static final int LOD_CELL = 2;
+
+    /*
+      Desde esta cantidad de nodos las posiciones salen de LayoutFuerzas,
+      calculado en un hilo aparte; con menos se usa el círculo de siempre
+     */
+    private static final int LAYOUT_NODES = 50;
+
+    //Cada cuánto se muestran las posiciones intermedias del layout
+    private static final long LAYOUT_PUBLISH_NS = 250_000_000L;
+
+    //Layouts ya calculados que se guardan (por versión del grafo)
+    private static final int LAYOUT_CACHE = 4;
+
     /*
       Grafo a visualizar
      */
@@ -30,7 +55,27 @@ public class GraphPanel extends JPanel {
     /*
       Posiciones (x, y) de cada nodo en el panel
      */
-    private int[][] positions;
+    private int[] posX;
+    private int[] posY;
+
+    /*
+      Posiciones del layout por fuerzas en [0, 1] (x en 2i, y en 2i+1), o null
+      para el círculo. Se guardan normalizadas: al cambiar el tamaño del panel
+      solo se reescalan.
+     */
+    private float[] layout;
+
+    //Cálculo del layout en curso (null si no hay) y su avance en porcentaje
+    private SwingWorker<float[], float[]> layoutWorker;
+    private int layoutProgress;
+
+    //Layouts terminados por versión de grafo, el más viejo sale primero
+    private final Map<Long, float[]> layouts = new LinkedHashMap<Long, float[]>(8, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, float[]> eldest) {
+            return size() > LAYOUT_CACHE;
+        }
+    };
 
     /*
       Camino más corto (Dijkstra) a resaltar
@@ -42,6 +87,22 @@ public class GraphPanel extends JPanel {
      */
     private List<Integer> maxVictimsPath;
 
+    /*
+      Nodos y aristas (u << 32 | v) de los caminos, para saber en O(1) si
+      algo pertenece a un camino
+     */
+    private final BitSet shortestNodes = new BitSet();
+    private final BitSet maxVictimsNodes = new BitSet();
+    private final Set<Long> shortestEdges = new HashSet<>();
+    private final Set<Long> maxVictimsEdges = new HashSet<>();
+
+    /*
+      Ruta elegida de la frontera de Pareto (distancia vs víctimas), que se
+      pinta encima de los otros dos caminos. Vacía si no hay ninguna elegida.
+     */
+    private List<Integer> paretoPath = new ArrayList<>();
+    private final BitSet paretoNodes = new BitSet();
+
     /*
       Nodo origen seleccionado
      */
@@ -52,6 +113,16 @@ public class GraphPanel extends JPanel {
      */
     private int end;
 
+    /*
+      Imagen con el grafo sin resaltar (título, leyenda, aristas y nodos).
+      Solo se vuelve a dibujar si cambia el tamaño o el grafo; los caminos
+      se pintan encima en cada repintado.
+     */
+    private BufferedImage cache;
+    private int cacheWidth;
+    private int cacheHeight;
+    private long cacheVersion;
+
     // Colores del tema oscuro/brujo
     private static final Color BG_COLOR = new Color(15, 10, 30);
     private static final Color NODE_COLOR = new Color(60, 30, 90);
@@ -64,6 +135,46 @@ public class GraphPanel extends JPanel {
     private static final Color START_COLOR = new Color(50, 200, 50);
     private static final Color END_COLOR = new Color(255, 50, 50);
     private static final Color VICTIM_COLOR = new Color(255, 150, 50);
+    private static final Color TITLE_COLOR = new Color(180, 130, 255);
+    private static final Color DIJKSTRA_GLOW = new Color(0, 220, 150, 60);
+    private static final Color BELLMAN_GLOW = new Color(255, 80, 80, 60);
+    private static final Color PARETO_COLOR = new Color(255, 210, 60);
+    private static final Color PARETO_GLOW = new Color(255, 210, 60, 60);
+
+    /*
+      Aristas agrupadas: más claras cuantas más aristas caen en el mismo par
+      de celdas (índice = log2 de la cantidad). Son colores opacos mezclados
+      de antemano con el fondo, porque dibujar miles de líneas semitransparentes
+      es mucho más lento.
+     */
+    private static final Color[] EDGE_DENSITY = new Color[8];
+
+    static {
+        for (int i = 0; i < EDGE_DENSITY.length; i++) {
+            double t = 0.35 + 0.65 * i / (EDGE_DENSITY.length - 1);
+            EDGE_DENSITY[i] = new Color(
+                    (int) (BG_COLOR.getRed() + t * (NODE_BORDER.getRed() - BG_COLOR.getRed())),
+                    (int) (BG_COLOR.getGreen() + t * (NODE_BORDER.getGreen() - BG_COLOR.getGreen())),
+                    (int) (BG_COLOR.getBlue() + t * (NODE_BORDER.getBlue() - BG_COLOR.getBlue())));
+        }
+    }
+
+    // Fuentes y trazos, creados una sola vez
+    private static final Font TITLE_FONT = new Font("Monospaced", Font.BOLD, 14);
+    private static final Font LABEL_FONT = new Font("Monospaced", Font.BOLD, 14);
+    private static final Font WEIGHT_FONT = new Font("SansSerif", Font.BOLD, 11);
+    private static final Font VICTIM_FONT = new Font("SansSerif", Font.PLAIN, 10);
+    private static final Font LEGEND_FONT = new Font("SansSerif", Font.PLAIN, 11);
+    private static final Stroke EDGE_STROKE = new BasicStroke(1.5f);
+    private static final Stroke LOD_EDGE_STROKE = new BasicStroke(1f);
+    private static final Stroke PATH_STROKE = new BasicStroke(3.5f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+    private static final Stroke LOD_PATH_STROKE = new BasicStroke(2f);
+    private static final Stroke SHARED_PATH_STROKE = new BasicStroke(4f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+    private static final Stroke NODE_STROKE = new BasicStroke(2f);
+    private static final Stroke LEGEND_STROKE = new BasicStroke(3);
+    // Punteado para que debajo se sigan viendo los caminos de Dijkstra y Bellman-Ford
+    private static final Stroke PARETO_STROKE = new BasicStroke(2.5f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND,
+            10f, new float[]{8f, 6f}, 0f);
 
     /*
       Inicializa el panel con fondo oscuro.
@@ -76,43 +187,159 @@ public class GraphPanel extends JPanel {
     }
 
     /*
-      Establece el grafo y calcula las posiciones de los nodos en círculo.
+      Establece el grafo y calcula las posiciones de los nodos: en círculo si
+      son pocos, o con el layout por fuerzas (guardado o en segundo plano;
+      mientras se calcula se ven las posiciones intermedias).
      */
     public void setGraph(Graph graph, int start, int end) {
         this.graph = graph;
         this.start = start;
         this.end = end;
-        this.shortestPath = new ArrayList<>();
-        this.maxVictimsPath = new ArrayList<>();
+        setPaths(null, null);
+        setParetoPath(null);
+
+        if (layoutWorker != null) {
+            layoutWorker.cancel(true);
+            layoutWorker = null;
+        }
+        layout = null;
+        if (graph.getN() >= LAYOUT_NODES) {
+            layout = layouts.get(graph.getVersion());
+            if (layout == null) startLayout(graph);
+        }
+        cache = null;
+        calculatePositions();
+        repaint();
+    }
+
+    /*
+      Calcula el layout en un hilo de SwingWorker y publica posiciones
+      intermedias al EDT. Si otro setGraph lo reemplaza, se cancela.
+     */
+    private void startLayout(Graph graph) {
+        long version = graph.getVersion();
+        CsrGraph csr = graph.freeze();
+        layoutProgress = 0;
+        layoutWorker = new SwingWorker<float[], float[]>() {
+            @Override
+            protected float[] doInBackground() {
+                LayoutFuerzas fuerzas = new LayoutFuerzas(csr);
+                long last = System.nanoTime();
+                while (!isCancelled() && fuerzas.paso()) {
+                    if (System.nanoTime() - last >= LAYOUT_PUBLISH_NS) {
+                        setProgress(100 * fuerzas.getIteracion() / fuerzas.getIteraciones());
+                        publish(fuerzas.posiciones());
+                        last = System.nanoTime();
+                    }
+                }
+                return isCancelled() ? null : fuerzas.posiciones();
+            }
+
+            @Override
+            protected void process(List<float[]> chunks) {
+                if (layoutWorker != this) return;
+                layoutProgress = getProgress();
+                applyLayout(chunks.get(chunks.size() - 1));
+            }
+
+            @Override
+            protected void done() {
+                if (layoutWorker != this || isCancelled()) return;
+                layoutWorker = null;
+                try {
+                    float[] pos = get();
+                    layouts.put(version, pos);
+                    applyLayout(pos);
+                } catch (InterruptedException | java.util.concurrent.ExecutionException e) {
+                    // Si el layout falla queda el dibujo que había (círculo o intermedio)
+                    System.err.println("No se pudo calcular el layout: " + e);
+                    repaint();
+                }
+            }
+        };
+        layoutWorker.execute();
+    }
+
+    private void applyLayout(float[] pos) {
+        layout = pos;
+        cache = null;
         calculatePositions();
         repaint();
     }
 
     /*
       Establece los caminos a resaltar y repinta.
+      No invalida la imagen del grafo: solo cambia lo que se pinta encima.
      */
     public void setPaths(List<Integer> shortest, List<Integer> maxVictims) {
         this.shortestPath = shortest != null ? shortest : new ArrayList<>();
         this.maxVictimsPath = maxVictims != null ? maxVictims : new ArrayList<>();
+
+        shortestNodes.clear();
+        maxVictimsNodes.clear();
+        shortestEdges.clear();
+        maxVictimsEdges.clear();
+        for (int i = 0; i < shortestPath.size(); i++) {
+            shortestNodes.set(shortestPath.get(i));
+            if (i > 0) shortestEdges.add(edgeKey(shortestPath.get(i - 1), shortestPath.get(i)));
+        }
+        for (int i = 0; i < maxVictimsPath.size(); i++) {
+            maxVictimsNodes.set(maxVictimsPath.get(i));
+            if (i > 0) maxVictimsEdges.add(edgeKey(maxVictimsPath.get(i - 1), maxVictimsPath.get(i)));
+        }
+        repaint();
+    }
+
+    /*
+      Resalta una ruta de la frontera de Pareto (null para quitarla).
+      Igual que setPaths, no invalida la imagen del grafo.
+     */
+    public void setParetoPath(List<Integer> path) {
+        this.paretoPath = path != null ? path : new ArrayList<>();
+        paretoNodes.clear();
+        for (int v : paretoPath) paretoNodes.set(v);
         repaint();
     }
 
+    private static long edgeKey(int u, int v) {
+        return (long) u << 32 | (v & 0xffffffffL);
+    }
+
+    private boolean lowDetail() {
+        return graph.getN() >= LOD_NODES;
+    }
+
+    private int radius() {
+        return lowDetail() ? LOD_RADIUS : NODE_RADIUS;
+    }
+
     /*
-      Calcula las posiciones de los nodos distribuidos en un círculo.
+      Calcula las posiciones de los nodos en píxeles: escala el layout por
+      fuerzas al panel, o los distribuye en un círculo.
      */
     private void calculatePositions() {
         int n = graph.getN();
-        positions = new int[n][2];
+        posX = new int[n];
+        posY = new int[n];
         int w = getWidth() > 0 ? getWidth() : 800;
         int h = getHeight() > 0 ? getHeight() : 600;
         int cx = w / 2;
         int cy = h / 2;
-        int r = Math.min(w, h) / 2 - MARGIN - NODE_RADIUS;
+        int r = Math.min(w, h) / 2 - MARGIN - radius();
+
+        if (layout != null) {
+            int side = 2 * r;
+            for (int i = 0; i < n; i++) {
+                posX[i] = (int) (cx - r + layout[2 * i] * side);
+                posY[i] = (int) (cy - r + layout[2 * i + 1] * side);
+            }
+            return;
+        }
 
         for (int i = 0; i < n; i++) {
             double angle = 2 * Math.PI * i / n - Math.PI / 2;
-            positions[i][0] = (int) (cx + r * Math.cos(angle));
-            positions[i][1] = (int) (cy + r * Math.sin(angle));
+            posX[i] = (int) (cx + r * Math.cos(angle));
+            posY[i] = (int) (cy + r * Math.sin(angle));
         }
     }
 
@@ -121,70 +348,245 @@ public class GraphPanel extends JPanel {
         super.paintComponent(g);
         if (graph == null) return;
 
-        // Recalcular posiciones si el panel cambió de tamaño
-        calculatePositions();
-
         Graphics2D g2 = (Graphics2D) g;
-        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
 
-        // Dibujar título
-        g2.setColor(new Color(180, 130, 255));
-        g2.setFont(new Font("Monospaced", Font.BOLD, 14));
-        g2.drawString("🧙 El Ritual de JohlodejVe - Grafo de Aldeas", 15, 20);
+        // La imagen se rehace solo si el panel cambió de tamaño o el grafo cambió
+        int w = getWidth();
+        int h = getHeight();
+        if (w <= 0 || h <= 0) return;
+        if (cache == null || w != cacheWidth || h != cacheHeight || graph.getVersion() != cacheVersion) {
+            if (w != cacheWidth || h != cacheHeight || posX == null || posX.length != graph.getN()) {
+                calculatePositions();
+            }
+            cache = renderStatic(g2, w, h);
+            cacheWidth = w;
+            cacheHeight = h;
+            cacheVersion = graph.getVersion();
+        }
+        g2.drawImage(cache, 0, 0, w, h, null);
 
-        // Dibujar leyenda
-        drawLegend(g2);
+        // Un camino de miles de nodos cruzando el panel es lento de suavizar
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                lowDetail() ? RenderingHints.VALUE_ANTIALIAS_OFF : RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        drawPaths(g2);
 
-        // Dibujar aristas
-        drawEdges(g2);
+        if (layoutWorker != null) {
+            g2.setColor(TEXT_COLOR);
+            g2.setFont(LEGEND_FONT);
+            g2.drawString("Calculando disposición... " + layoutProgress + "%", 15, 38);
+        }
+    }
 
-        // Dibujar nodos encima de las aristas
-        drawNodes(g2);
+    /*
+      Dibuja el grafo sin caminos en una imagen del tamaño del panel
+      (multiplicado por la escala de la pantalla, para que no se vea borroso).
+     */
+    private BufferedImage renderStatic(Graphics2D target, int w, int h) {
+        AffineTransform tx = target.getTransform();
+        double sx = tx.getScaleX();
+        double sy = tx.getScaleY();
+        BufferedImage img = new BufferedImage((int) Math.ceil(w * sx), (int) Math.ceil(h * sy),
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = img.createGraphics();
+        try {
+            g2.scale(sx, sy);
+            g2.setColor(BG_COLOR);
+            g2.fillRect(0, 0, w, h);
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+            // Dibujar título
+            g2.setColor(TITLE_COLOR);
+            g2.setFont(TITLE_FONT);
+            g2.drawString("🧙 El Ritual de JohlodejVe - Grafo de Aldeas", 15, 20);
+
+            // Dibujar leyenda
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            drawLegend(g2);
+
+            CsrGraph csr = graph.freeze();
+            if (lowDetail()) {
+                // Con miles de aristas el antialiasing cuesta más de lo que aporta
+                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+                drawAggregatedEdges(g2, csr);
+                drawDots(g2, csr);
+            } else {
+                // Dibujar aristas
+                drawEdges(g2, csr);
+
+                // Dibujar nodos encima de las aristas
+                for (int i = 0; i < csr.getN(); i++) {
+                    drawNode(g2, csr, i, false);
+                }
+            }
+        } finally {
+            g2.dispose();
+        }
+        return img;
     }
 
     /*
-      Dibuja todas las aristas del grafo, resaltando los caminos.
+      Dibuja todas las aristas del grafo sin resaltar.
      */
-    private void drawEdges(Graphics2D g2) {
-        List<List<int[]>> adj = graph.getAdj();
-        int n = graph.getN();
+    private void drawEdges(Graphics2D g2, CsrGraph csr) {
+        int n = csr.getN();
+        g2.setFont(WEIGHT_FONT);
+        g2.setStroke(EDGE_STROKE);
 
         for (int u = 0; u < n; u++) {
-            for (int[] edge : adj.get(u)) {
-                int v = edge[0];
-                int d = edge[1];
-
-                boolean inShortest = isEdgeInPath(u, v, shortestPath);
-                boolean inMaxVic = isEdgeInPath(u, v, maxVictimsPath);
-
-                // Elegir color y grosor según si pertenece a algún camino
-                if (inShortest && inMaxVic) {
-                    // Ambos caminos comparten esta arista: mostrar Dijkstra
-                    g2.setColor(DIJKSTRA_COLOR);
-                    g2.setStroke(new BasicStroke(4f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
-                } else if (inShortest) {
-                    g2.setColor(DIJKSTRA_COLOR);
-                    g2.setStroke(new BasicStroke(3.5f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
-                } else if (inMaxVic) {
-                    g2.setColor(BELLMAN_COLOR);
-                    g2.setStroke(new BasicStroke(3.5f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
-                } else {
-                    g2.setColor(EDGE_COLOR);
-                    g2.setStroke(new BasicStroke(1.5f));
-                }
+            for (int e = csr.firstEdge(u), end = csr.endEdge(u); e < end; e++) {
+                int v = csr.target(e);
+                g2.setColor(EDGE_COLOR);
+                drawArrow(g2, posX[u], posY[u], posX[v], posY[v]);
+                drawWeight(g2, u, v, csr.weight(e));
+            }
+        }
+    }
 
-                drawArrow(g2, positions[u][0], positions[u][1],
-                        positions[v][0], positions[v][1]);
+    // Etiqueta del peso en el punto medio
+    private void drawWeight(Graphics2D g2, int u, int v, int d) {
+        int mx = (posX[u] + posX[v]) / 2;
+        int my = (posY[u] + posY[v]) / 2;
+        g2.setColor(WEIGHT_COLOR);
+        g2.drawString("d:" + d, mx + 4, my - 4);
+    }
 
-                // Etiqueta del peso en el punto medio
-                int mx = (positions[u][0] + positions[v][0]) / 2;
-                int my = (positions[u][1] + positions[v][1]) / 2;
-                g2.setColor(WEIGHT_COLOR);
-                g2.setFont(new Font("SansSerif", Font.BOLD, 11));
-                g2.drawString("d:" + d, mx + 4, my - 4);
+    /*
+      Con muchos nodos, miles de aristas caen sobre los mismos píxeles.
+      Se agrupan por par de celdas (origen, destino) y cada grupo se dibuja
+      una sola vez, más opaco cuantas más aristas contiene.
+     */
+    private void drawAggregatedEdges(Graphics2D g2, CsrGraph csr) {
+        int cols = cacheColumns();
+        long[] keys = new long[csr.getM()];
+        int k = 0;
+        for (int u = 0; u < csr.getN(); u++) {
+            long cu = cell(u, cols);
+            for (int e = csr.firstEdge(u), end = csr.endEdge(u); e < end; e++) {
+                long cv = cell(csr.target(e), cols);
+                if (cu != cv) keys[k++] = cu << 32 | cv;
             }
         }
+        Arrays.sort(keys, 0, k);
+
+        g2.setStroke(LOD_EDGE_STROKE);
+        for (int i = 0; i < k; ) {
+            int j = i;
+            while (j < k && keys[j] == keys[i]) j++;
+            int density = Math.min(EDGE_DENSITY.length - 1, 31 - Integer.numberOfLeadingZeros(j - i));
+            g2.setColor(EDGE_DENSITY[density]);
+            int cu = (int) (keys[i] >>> 32);
+            int cv = (int) keys[i];
+            g2.drawLine(cu % cols * LOD_CELL, cu / cols * LOD_CELL, cv % cols * LOD_CELL, cv / cols * LOD_CELL);
+            i = j;
+        }
+    }
+
+    private int cacheColumns() {
+        return Math.max(1, (getWidth() > 0 ? getWidth() : 800) / LOD_CELL + 1);
+    }
+
+    private long cell(int v, int cols) {
+        return (long) (posY[v] / LOD_CELL) * cols + posX[v] / LOD_CELL;
+    }
+
+    //Nodos como puntos, sin etiquetas (modo de menos detalle)
+    private void drawDots(Graphics2D g2, CsrGraph csr) {
+        // Con miles de nodos los puntos se achican para que se vean las aristas
+        int r = csr.getN() >= 5_000 ? 1 : LOD_RADIUS;
+        g2.setColor(NODE_BORDER);
+        for (int i = 0; i < csr.getN(); i++) {
+            g2.fillRect(posX[i] - r, posY[i] - r, 2 * r, 2 * r);
+        }
+        drawDot(g2, start, START_COLOR);
+        drawDot(g2, end, END_COLOR);
+    }
+
+    private void drawDot(Graphics2D g2, int v, Color color) {
+        int r = LOD_RADIUS + 2;
+        g2.setColor(color);
+        g2.fillOval(posX[v] - r, posY[v] - r, r * 2, r * 2);
+    }
+
+    /*
+      Pinta los caminos encima de la imagen del grafo: primero el de
+      Bellman-Ford y después el de Dijkstra, que tiene prioridad donde
+      comparten aristas. La ruta de Pareto elegida va al final, punteada.
+      Los nodos de los caminos se vuelven a dibujar con el brillo encima de
+      sus aristas.
+     */
+    private void drawPaths(Graphics2D g2) {
+        if (shortestPath.size() < 2 && maxVictimsPath.size() < 2 && paretoPath.size() < 2) return;
+        CsrGraph csr = graph.freeze();
+        boolean lod = lowDetail();
+
+        for (int i = 1; i < maxVictimsPath.size(); i++) {
+            int u = maxVictimsPath.get(i - 1);
+            int v = maxVictimsPath.get(i);
+            if (shortestEdges.contains(edgeKey(u, v))) continue;
+            g2.setColor(BELLMAN_COLOR);
+            g2.setStroke(lod ? LOD_PATH_STROKE : PATH_STROKE);
+            drawPathEdge(g2, csr, u, v, lod);
+        }
+        for (int i = 1; i < shortestPath.size(); i++) {
+            int u = shortestPath.get(i - 1);
+            int v = shortestPath.get(i);
+            g2.setColor(DIJKSTRA_COLOR);
+            // Ambos caminos comparten esta arista: mostrar Dijkstra más grueso
+            if (lod) {
+                g2.setStroke(LOD_PATH_STROKE);
+            } else {
+                g2.setStroke(maxVictimsEdges.contains(edgeKey(u, v)) ? SHARED_PATH_STROKE : PATH_STROKE);
+            }
+            drawPathEdge(g2, csr, u, v, lod);
+        }
+        for (int i = 1; i < paretoPath.size(); i++) {
+            g2.setColor(PARETO_COLOR);
+            g2.setStroke(lod ? LOD_PATH_STROKE : PARETO_STROKE);
+            drawPathEdge(g2, csr, paretoPath.get(i - 1), paretoPath.get(i), lod);
+        }
+
+        // Cada nodo una sola vez aunque esté en varios caminos
+        BitSet nodes = (BitSet) shortestNodes.clone();
+        nodes.or(maxVictimsNodes);
+        nodes.or(paretoNodes);
+        for (int v = nodes.nextSetBit(0); v >= 0; v = nodes.nextSetBit(v + 1)) {
+            if (lod) {
+                drawDot(g2, v, paretoNodes.get(v) ? PARETO_COLOR
+                        : shortestNodes.get(v) ? DIJKSTRA_COLOR : BELLMAN_COLOR);
+            } else {
+                drawNode(g2, csr, v, true);
+            }
+        }
+        if (lod) {
+            drawDot(g2, start, START_COLOR);
+            drawDot(g2, end, END_COLOR);
+        }
+
+        // La leyenda está en la imagen del grafo: esta entrada solo aparece con una ruta elegida
+        if (paretoPath.size() >= 2) {
+            int lx = 15, ly = getHeight() - 98;
+            g2.setColor(PARETO_COLOR);
+            g2.setStroke(LEGEND_STROKE);
+            g2.drawLine(lx, ly, lx + 25, ly);
+            g2.setColor(TEXT_COLOR);
+            g2.setFont(LEGEND_FONT);
+            g2.drawString("Pareto (ruta elegida)", lx + 30, ly + 4);
+        }
+    }
+
+    private void drawPathEdge(Graphics2D g2, CsrGraph csr, int u, int v, boolean lod) {
+        if (lod) {
+            g2.drawLine(posX[u], posY[u], posX[v], posY[v]);
+            return;
+        }
+        drawArrow(g2, posX[u], posY[u], posX[v], posY[v]);
+        Color color = g2.getColor();
+        g2.setFont(WEIGHT_FONT);
+        for (int e = csr.firstEdge(u), end = csr.endEdge(u); e < end; e++) {
+            if (csr.target(e) == v) drawWeight(g2, u, v, csr.weight(e));
+        }
+        g2.setColor(color);
     }
 
     /*
@@ -220,57 +622,55 @@ public class GraphPanel extends JPanel {
     }
 
     /*
-      Dibuja todos los nodos del grafo.
+      Dibuja un nodo con su número y víctimas. Con glow, agrega el brillo
+      del camino al que pertenece (solo en la capa de caminos, no en la imagen).
      */
-    private void drawNodes(Graphics2D g2) {
-        int[] victims = graph.getVictimas();
-        for (int i = 0; i < graph.getN(); i++) {
-            int x = positions[i][0];
-            int y = positions[i][1];
-
-            // Color especial para inicio y fin
-            Color fill;
-            if (i == start) {
-                fill = START_COLOR;
-            } else if (i == end) {
-                fill = END_COLOR;
-            } else {
-                fill = NODE_COLOR;
-            }
+    private void drawNode(Graphics2D g2, CsrGraph csr, int i, boolean glow) {
+        int x = posX[i];
+        int y = posY[i];
+
+        // Color especial para inicio y fin
+        Color fill;
+        if (i == start) {
+            fill = START_COLOR;
+        } else if (i == end) {
+            fill = END_COLOR;
+        } else {
+            fill = NODE_COLOR;
+        }
 
-            // Sombra/glow si está en algún camino
-            boolean inS = shortestPath.contains(i);
-            boolean inM = maxVictimsPath.contains(i);
-            if (inS || inM) {
-                Color glow = inS && inM ? DIJKSTRA_COLOR : inS ? DIJKSTRA_COLOR : BELLMAN_COLOR;
-                g2.setColor(new Color(glow.getRed(), glow.getGreen(), glow.getBlue(), 60));
-                g2.fillOval(x - NODE_RADIUS - 6, y - NODE_RADIUS - 6,
-                        (NODE_RADIUS + 6) * 2, (NODE_RADIUS + 6) * 2);
-            }
+        // Sombra/glow si está en algún camino
+        boolean inS = shortestNodes.get(i);
+        boolean inM = maxVictimsNodes.get(i);
+        boolean inP = paretoNodes.get(i);
+        if (glow && (inS || inM || inP)) {
+            g2.setColor(inP ? PARETO_GLOW : inS ? DIJKSTRA_GLOW : BELLMAN_GLOW);
+            g2.fillOval(x - NODE_RADIUS - 6, y - NODE_RADIUS - 6,
+                    (NODE_RADIUS + 6) * 2, (NODE_RADIUS + 6) * 2);
+        }
 
-            // Círculo relleno
-            g2.setColor(fill);
-            g2.fillOval(x - NODE_RADIUS, y - NODE_RADIUS, NODE_RADIUS * 2, NODE_RADIUS * 2);
+        // Círculo relleno
+        g2.setColor(fill);
+        g2.fillOval(x - NODE_RADIUS, y - NODE_RADIUS, NODE_RADIUS * 2, NODE_RADIUS * 2);
 
-            // Borde
-            g2.setColor(NODE_BORDER);
-            g2.setStroke(new BasicStroke(2f));
-            g2.drawOval(x - NODE_RADIUS, y - NODE_RADIUS, NODE_RADIUS * 2, NODE_RADIUS * 2);
+        // Borde
+        g2.setColor(NODE_BORDER);
+        g2.setStroke(NODE_STROKE);
+        g2.drawOval(x - NODE_RADIUS, y - NODE_RADIUS, NODE_RADIUS * 2, NODE_RADIUS * 2);
 
-            // Número de nodo
-            g2.setColor(TEXT_COLOR);
-            g2.setFont(new Font("Monospaced", Font.BOLD, 14));
-            FontMetrics fm = g2.getFontMetrics();
-            String label = String.valueOf(i);
-            g2.drawString(label, x - fm.stringWidth(label) / 2, y + 5);
-
-            // Víctimas debajo del nodo
-            if (victims[i] > 0) {
-                g2.setColor(VICTIM_COLOR);
-                g2.setFont(new Font("SansSerif", Font.PLAIN, 10));
-                String vLabel = "👻" + victims[i];
-                g2.drawString(vLabel, x - fm.stringWidth(vLabel) / 2 - 2, y + NODE_RADIUS + 13);
-            }
+        // Número de nodo
+        g2.setColor(TEXT_COLOR);
+        g2.setFont(LABEL_FONT);
+        FontMetrics fm = g2.getFontMetrics();
+        String label = String.valueOf(i);
+        g2.drawString(label, x - fm.stringWidth(label) / 2, y + 5);
+
+        // Víctimas debajo del nodo
+        if (csr.victims(i) > 0) {
+            g2.setColor(VICTIM_COLOR);
+            g2.setFont(VICTIM_FONT);
+            String vLabel = "👻" + csr.victims(i);
+            g2.drawString(vLabel, x - fm.stringWidth(vLabel) / 2 - 2, y + NODE_RADIUS + 13);
         }
     }
 
@@ -279,17 +679,17 @@ public class GraphPanel extends JPanel {
      */
     private void drawLegend(Graphics2D g2) {
         int lx = 15, ly = getHeight() - 80;
-        g2.setFont(new Font("SansSerif", Font.PLAIN, 11));
+        g2.setFont(LEGEND_FONT);
 
         g2.setColor(DIJKSTRA_COLOR);
-        g2.setStroke(new BasicStroke(3));
+        g2.setStroke(LEGEND_STROKE);
         g2.drawLine(lx, ly, lx + 25, ly);
         g2.setColor(TEXT_COLOR);
         g2.drawString("Dijkstra (más corto)", lx + 30, ly + 4);
 
         ly += 18;
         g2.setColor(BELLMAN_COLOR);
-        g2.setStroke(new BasicStroke(3));
+        g2.setStroke(LEGEND_STROKE);
         g2.drawLine(lx, ly, lx + 25, ly);
         g2.setColor(TEXT_COLOR);
         g2.drawString("Bellman-Ford (más víctimas)", lx + 30, ly + 4);
@@ -304,14 +704,4 @@ public class GraphPanel extends JPanel {
         g2.fillOval(lx + 65, ly - 8, 12, 12);
         g2.drawString("Destino (guarida)", lx + 83, ly + 4);
     }
-
-    /*
-      Verifica si la arista (u→v) está en el camino dado.
-     */
-    private boolean isEdgeInPath(int u, int v, List<Integer> path) {
-        for (int i = 0; i < path.size() - 1; i++) {
-            if (path.get(i) == u && path.get(i + 1) == v) return true;
-        }
-        return false;
-    }
 }
@@ -0,0 +1,81 @@
+package TrabajoGrafosCompi;
+
+import java.util.*;
+
+/*
+  Lectura de un grafo ya armado, sin importar dónde viven sus arreglos:
+  CsrGraph los tiene en el heap y MappedGraph los lee de un archivo mapeado.
+  Los algoritmos solo usan estos métodos, así que corren igual sobre ambos.
+  Las aristas salientes de u ocupan las posiciones [firstEdge(u), endEdge(u)).
+ */
+public interface GraphView {
+
+    //Número de nodos
+    int getN();
+
+    //Número de aristas
+    int getM();
+
+    //Victimas del nodo v
+    int victims(int v);
+
+    //Primera posición de las aristas salientes de u
+    int firstEdge(int u);
+
+    //Posición siguiente a la última arista saliente de u (exclusiva)
+    int endEdge(int u);
+
+    //Destino de la arista en la posición e de la adyacencia
+    int target(int e);
+
+    //Distancia de la arista en la posición e de la adyacencia
+    int weight(int e);
+
+    //Origen, destino y distancia de la i-ésima arista en orden de inserción
+    int edgeFrom(int i);
+
+    int edgeTo(int i);
+
+    int edgeWeight(int i);
+
+    //Grafo con todas las aristas invertidas (v -> u), con las mismas víctimas
+    GraphView reverse();
+
+    int getMinWeight();
+
+    int getMaxWeight();
+
+    /*
+      Distancia total de un camino, tomando la primera arista u -> v que aparece
+      en la adyacencia de u (igual que se hacía con la lista de adyacencia).
+     */
+    default int pathDistance(List<Integer> path) {
+        int total = 0;
+        for (int i = 0; i < path.size() - 1; i++) {
+            int u = path.get(i);
+            int v = path.get(i + 1);
+            for (int e = firstEdge(u), end = endEdge(u); e < end; e++) {
+                if (target(e) == v) {
+                    total += weight(e);
+                    break;
+                }
+            }
+        }
+        return total;
+    }
+
+    /*
+      Suma las victimas de un camino contando cada nodo solo la primera vez.
+     */
+    default int pathVictims(List<Integer> path) {
+        int total = 0;
+        BitSet visited = new BitSet(getN());
+        for (int node : path) {
+            if (!visited.get(node)) {
+                visited.set(node);
+                total += victims(node);
+            }
+        }
+        return total;
+    }
+}
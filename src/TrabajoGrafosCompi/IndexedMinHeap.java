@@ -0,0 +1,158 @@
+package TrabajoGrafosCompi;
+
+import java.util.*;
+
+/*
+  Montículo mínimo indexado d-ario (d = 4) sobre arreglos int[].
+  Cada nodo aparece a lo sumo una vez, así que el tamaño está acotado por n,
+  y push() sobre un nodo que ya está en la cola hace decrease-key.
+  No crea objetos después de construido: se puede reutilizar entre ejecuciones.
+ */
+public final class IndexedMinHeap implements ColaNodos {
+
+    private static final int D = 4;
+
+    //heap[i] = nodo en la posición i del montículo
+    private int[] heap;
+
+    //pos[v] = posición de v en heap[], o -1 si no está en la cola
+    private int[] pos;
+
+    //keys[v] = prioridad actual de v
+    private int[] keys;
+
+    private int size;
+
+    public IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        pos = new int[capacity];
+        keys = new int[capacity];
+        Arrays.fill(pos, -1);
+    }
+
+    //Asegura espacio para nodos 0..capacity-1 y deja la cola vacía
+    @Override
+    public void reset(int capacity) {
+        if (capacity > pos.length) {
+            heap = new int[capacity];
+            pos = new int[capacity];
+            keys = new int[capacity];
+            Arrays.fill(pos, -1);
+            size = 0;
+        } else {
+            clear();
+        }
+    }
+
+    //Vacía la cola en O(tamaño actual)
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            pos[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int v) {
+        return pos[v] >= 0;
+    }
+
+    //Prioridad actual de v (solo válida si contains(v))
+    public int key(int v) {
+        return keys[v];
+    }
+
+    //Prioridad del mínimo sin sacarlo
+    public int minKey() {
+        return keys[heap[0]];
+    }
+
+    //Nodo con menor prioridad sin sacarlo
+    public int peek() {
+        return heap[0];
+    }
+
+    /*
+      Inserta v con prioridad key, o disminuye su prioridad si ya está.
+      Si la prioridad nueva no es menor, no hace nada.
+     */
+    @Override
+    public void push(int v, int key) {
+        int i = pos[v];
+        if (i < 0) {
+            i = size++;
+            heap[i] = v;
+            pos[v] = i;
+            keys[v] = key;
+            siftUp(i);
+        } else if (key < keys[v]) {
+            keys[v] = key;
+            siftUp(i);
+        }
+    }
+
+    //Saca y retorna el nodo con menor prioridad
+    @Override
+    public int poll() {
+        int min = heap[0];
+        pos[min] = -1;
+        size--;
+        if (size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            pos[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    private void siftUp(int i) {
+        int v = heap[i];
+        int k = keys[v];
+        while (i > 0) {
+            int p = (i - 1) / D;
+            int pv = heap[p];
+            if (keys[pv] <= k) break;
+            heap[i] = pv;
+            pos[pv] = i;
+            i = p;
+        }
+        heap[i] = v;
+        pos[v] = i;
+    }
+
+    private void siftDown(int i) {
+        int v = heap[i];
+        int k = keys[v];
+        while (true) {
+            int first = i * D + 1;
+            if (first >= size) break;
+            int last = Math.min(first + D, size);
+            int best = first;
+            int bestKey = keys[heap[first]];
+            for (int c = first + 1; c < last; c++) {
+                int ck = keys[heap[c]];
+                if (ck < bestKey) {
+                    best = c;
+                    bestKey = ck;
+                }
+            }
+            if (bestKey >= k) break;
+            int bv = heap[best];
+            heap[i] = bv;
+            pos[bv] = i;
+            i = best;
+        }
+        heap[i] = v;
+        pos[v] = i;
+    }
+}
@@ -0,0 +1,443 @@
+package TrabajoGrafosCompi;
+
+import java.util.*;
+
+/*
+  Los k caminos más cortos sin ciclos de origen a destino (Yen), en orden de
+  distancia: el primero es el de Dijkstra y los siguientes son las rutas de
+  escape alternativas. Cada uno sale como FronteraPareto.Ruta, con su
+  distancia y sus víctimas (contadas como en countVictims).
+
+  Para cada camino aceptado, Yen prueba desviarse en cada nodo (spur): deja
+  fijo el prefijo (raíz), prohíbe los nodos de la raíz y las aristas que ya
+  usaron otros caminos aceptados con la misma raíz, y busca el camino más
+  corto desde el nodo de desvío. Lo que evita rehacer trabajo:
+    - El árbol de caminos más cortos hacia el destino (Dijkstra sobre el
+      transpuesto) se calcula una vez. Saliendo de s por s -> v, nada cuesta
+      menos que d(s, v) + falta[v]; si la mejor salida permitida sigue por una
+      rama del árbol que no toca nada prohibido, esa rama ya es el mejor
+      desvío y no hace falta buscar. Si no, falta[] es la heurística (exacta
+      sin prohibiciones, consistente con ellas) de un A*.
+    - Esa misma cota descarta desvíos enteros: con k conocido, un desvío que
+      ni en el mejor caso le gana al peor candidato guardado no se calcula.
+    - El A* usa un solo espacio de trabajo (dist/padre con marca de consulta
+      y un IndexedMinHeap) para todas las búsquedas.
+    - Mejora de Lawler: un camino solo se desvía desde el punto donde él mismo
+      se separó de su padre; los desvíos anteriores ya los probó el padre.
+    - Los caminos aceptados se guardan en un árbol de prefijos (arreglos int[]),
+      así las aristas prohibidas de cada raíz salen de bajar por él.
+
+  Los caminos se entregan de a uno con un Iterator: el siguiente se calcula
+  recién al pedirlo. Con k conocido solo se guardan los k - entregados
+  mejores candidatos, así que k = 1000 ocupa memoria proporcional a k
+  caminos aunque el grafo sea grande. Los caminos se comparan por sus nodos:
+  entre aristas paralelas se usa siempre la más corta.
+
+  Es un espacio de trabajo reutilizable (no es seguro usarlo desde varios
+  hilos); al pedir un iterador nuevo el anterior deja de ser válido.
+ */
+public class KCaminosCortos {
+
+    private static final int INF = Integer.MAX_VALUE;
+
+    private final Graph graph;
+
+    //Grafo compacto usado en la última ejecución
+    private GraphView csr;
+
+    //Árbol de caminos más cortos hacia el destino: falta[v] y el nodo siguiente hacia él
+    private GraphView rev;
+    private DijkstraAlgoritmo haciaDestino;
+    private int[] falta;
+    private int[] siguiente;
+
+    //Espacio de trabajo del A*: dist y padre válidos si seen[v] == query
+    private int[] dist;
+    private int[] parent;
+    private int[] seen;
+    private int query;
+    private IndexedMinHeap heap;
+
+    //Nodos de la raíz (enRaiz[v] == marcaRaiz) y siguientes prohibidos desde el nodo de desvío
+    private int[] enRaiz;
+    private int marcaRaiz;
+    private int[] prohibido;
+    private int marcaProhibido;
+
+    //Iterador vigente: los anteriores fallan con ConcurrentModificationException
+    private int generacion;
+
+    //Desvíos resueltos con el árbol, con A* y descartados por la cota desde el último iterador
+    private long atajos;
+    private long busquedas;
+    private long descartados;
+
+    public KCaminosCortos(Graph graph) {
+        this.graph = graph;
+    }
+
+    //Ejecuta sobre un grafo fijo (por ejemplo, un MappedGraph abierto de disco)
+    public KCaminosCortos(GraphView csr) {
+        this.graph = null;
+        this.csr = csr;
+    }
+
+    //Los k caminos más cortos (o menos, si no hay tantos), ya calculados
+    public List<FronteraPareto.Ruta> calcular(int origen, int destino, int k) {
+        List<FronteraPareto.Ruta> res = new ArrayList<>();
+        Iterator<FronteraPareto.Ruta> it = iterator(origen, destino, k);
+        while (it.hasNext()) res.add(it.next());
+        return res;
+    }
+
+    //Todos los caminos simples en orden de distancia, calculados a medida que se piden
+    public Iterator<FronteraPareto.Ruta> iterator(int origen, int destino) {
+        return iterator(origen, destino, Integer.MAX_VALUE);
+    }
+
+    //Hasta k caminos en orden de distancia, calculados a medida que se piden
+    public Iterator<FronteraPareto.Ruta> iterator(int origen, int destino, int k) {
+        if (k < 0) throw new IllegalArgumentException("k negativo: " + k);
+        if (graph != null) csr = graph.freeze();
+        if (csr.getMinWeight() < 0) {
+            throw new IllegalStateException("Los k caminos más cortos requieren distancias no negativas");
+        }
+        int n = csr.getN();
+        if (dist == null || dist.length != n) {
+            dist = new int[n];
+            parent = new int[n];
+            seen = new int[n];
+            enRaiz = new int[n];
+            prohibido = new int[n];
+            heap = new IndexedMinHeap(n);
+            query = marcaRaiz = marcaProhibido = 0;
+        }
+        if (rev != csr.reverse()) {
+            rev = csr.reverse();
+            haciaDestino = new DijkstraAlgoritmo(rev);
+        }
+        haciaDestino.run(destino);
+        falta = haciaDestino.getDistances();
+        siguiente = haciaDestino.getParents();
+        atajos = 0;
+        busquedas = 0;
+        descartados = 0;
+        generacion++;
+        return new Caminos(origen, destino, k);
+    }
+
+    //Desvíos que se resolvieron siguiendo el árbol hacia el destino, sin buscar
+    public long getAtajos() {
+        return atajos;
+    }
+
+    //Desvíos que necesitaron un A*
+    public long getBusquedas() {
+        return busquedas;
+    }
+
+    //Desvíos que no se calcularon porque ni su cota inferior entraba entre los candidatos
+    public long getDescartados() {
+        return descartados;
+    }
+
+    //Camino candidato (o aceptado): nodos, distancia acumulada hasta cada uno y punto de desvío
+    private static final class Candidato {
+        final int[] nodos;
+        final int[] acum;
+        final int desvio;
+        final long orden;
+        final int hash;
+
+        Candidato(int[] nodos, int[] acum, int desvio, long orden) {
+            this.nodos = nodos;
+            this.acum = acum;
+            this.desvio = desvio;
+            this.orden = orden;
+            this.hash = Arrays.hashCode(nodos);
+        }
+
+        int distancia() {
+            return acum[acum.length - 1];
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Candidato c && hash == c.hash && Arrays.equals(nodos, c.nodos);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    //Menor distancia primero; en empates, el que se generó antes
+    private static final Comparator<Candidato> POR_DISTANCIA = (a, b) -> {
+        int c = Integer.compare(a.distancia(), b.distancia());
+        return c != 0 ? c : Long.compare(a.orden, b.orden);
+    };
+
+    private final class Caminos implements Iterator<FronteraPareto.Ruta> {
+        private final int destino;
+        private final int k;
+        private final int gen = generacion;
+
+        private final TreeSet<Candidato> candidatos = new TreeSet<>(POR_DISTANCIA);
+        private final Set<Candidato> vistos = new HashSet<>();
+        private long orden;
+        private int entregados;
+
+        //Último camino entregado, que todavía no se desvió
+        private Candidato pendiente;
+
+        /*
+          Árbol de prefijos de los caminos aceptados: cada entrada es un nodo
+          del grafo, con su primer hijo y su siguiente hermano (-1 si no hay).
+          La entrada 0 es el origen.
+         */
+        private int[] trieNodo = new int[64];
+        private int[] trieHijo = new int[64];
+        private int[] trieHermano = new int[64];
+        private int trieTam;
+
+        Caminos(int origen, int destino, int k) {
+            this.destino = destino;
+            this.k = k;
+            if (k > 0 && falta[origen] != INF) {
+                //El primero es la rama del árbol desde el origen
+                agregar(arbol(new int[0], new int[0], origen, 0, 0));
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (gen != generacion) throw new ConcurrentModificationException();
+            if (entregados >= k) return false;
+            if (pendiente != null) {
+                desviar(pendiente);
+                pendiente = null;
+            }
+            return !candidatos.isEmpty();
+        }
+
+        @Override
+        public FronteraPareto.Ruta next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Candidato c = candidatos.pollFirst();
+            vistos.remove(c);
+            entregados++;
+            insertarTrie(c.nodos);
+            pendiente = c;
+
+            List<Integer> camino = new ArrayList<>(c.nodos.length);
+            int victimas = 0;
+            for (int v : c.nodos) {
+                camino.add(v);
+                victimas += csr.victims(v);
+            }
+            return new FronteraPareto.Ruta(camino, c.distancia(), victimas);
+        }
+
+        //Solo pueden salir k - entregados más: el resto no hace falta guardarlo
+        private void agregar(Candidato c) {
+            if (c == null || !vistos.add(c)) return;
+            candidatos.add(c);
+            if (candidatos.size() > k - entregados) vistos.remove(candidatos.pollLast());
+        }
+
+        //Un desvío tiene que costar menos que esto para quedar entre los candidatos
+        private long limite() {
+            return candidatos.size() < k - entregados ? Long.MAX_VALUE : candidatos.last().distancia();
+        }
+
+        //Prueba desviarse de p en cada nodo desde su propio punto de desvío (Lawler)
+        private void desviar(Candidato p) {
+            int[] nodos = p.nodos;
+            marcaRaiz = siguienteMarca(enRaiz, marcaRaiz);
+            int t = 0;
+            for (int i = 0; i < p.desvio; i++) {
+                enRaiz[nodos[i]] = marcaRaiz;
+                t = hijo(t, nodos[i + 1]);
+            }
+            for (int i = p.desvio; i < nodos.length - 1; i++) {
+                //Prohibir lo que ya usaron los caminos aceptados con esta misma raíz
+                marcaProhibido = siguienteMarca(prohibido, marcaProhibido);
+                for (int h = trieHijo[t]; h != -1; h = trieHermano[h]) {
+                    prohibido[trieNodo[h]] = marcaProhibido;
+                }
+                int s = nodos[i];
+                long cota = cotaSalida(s);
+                long limite = limite();
+                //Ni el mejor desvío posible desde s alcanza para entrar entre los candidatos
+                if (cota == Long.MAX_VALUE || p.acum[i] + cota >= limite) {
+                    descartados++;
+                } else {
+                    int e = salidaLibre(s, cota);
+                    if (e >= 0) {
+                        atajos++;
+                        agregar(arbol(Arrays.copyOf(nodos, i + 1), Arrays.copyOf(p.acum, i + 1),
+                                csr.target(e), p.acum[i] + csr.weight(e), i));
+                    } else {
+                        busquedas++;
+                        agregar(buscar(Arrays.copyOf(nodos, i), Arrays.copyOf(p.acum, i), s, p.acum[i], limite));
+                    }
+                }
+                enRaiz[s] = marcaRaiz;
+                t = hijo(t, nodos[i + 1]);
+            }
+        }
+
+        /*
+          Ningún camino desde s que salga por la arista s -> v cuesta menos
+          que d(s, v) + falta[v]: el mínimo entre las salidas permitidas es
+          una cota inferior del desvío (Long.MAX_VALUE si no hay salida).
+         */
+        private long cotaSalida(int s) {
+            long mejor = Long.MAX_VALUE;
+            for (int e = csr.firstEdge(s), end = csr.endEdge(s); e < end; e++) {
+                int v = csr.target(e);
+                if (permitido(s, v)) mejor = Math.min(mejor, (long) csr.weight(e) + falta[v]);
+            }
+            return mejor;
+        }
+
+        /*
+          Desvío sin búsqueda: si una salida que alcanza la cota sigue por una
+          rama del árbol que no toca la raíz (ni vuelve a s), ese es el mejor
+          desvío. Devuelve esa arista, o -1 si hay que buscar con A*.
+         */
+        private int salidaLibre(int s, long mejor) {
+            for (int e = csr.firstEdge(s), end = csr.endEdge(s); e < end; e++) {
+                int v = csr.target(e);
+                if (permitido(s, v) && csr.weight(e) + falta[v] == mejor && ramaLibre(s, v)) return e;
+            }
+            return -1;
+        }
+
+        private boolean permitido(int s, int v) {
+            return falta[v] != INF && enRaiz[v] != marcaRaiz && prohibido[v] != marcaProhibido && v != s;
+        }
+
+        //true si la rama del árbol desde v hasta el destino no pasa por la raíz ni por s
+        private boolean ramaLibre(int s, int v) {
+            for (; v != -1; v = siguiente[v]) {
+                if (enRaiz[v] == marcaRaiz || v == s) return false;
+            }
+            return true;
+        }
+
+        //Raíz + rama del árbol desde s hasta el destino, como desvío en la posición desvio
+        private Candidato arbol(int[] raiz, int[] acumRaiz, int s, int ds, int desvio) {
+            int largo = raiz.length;
+            for (int v = s; v != -1; v = siguiente[v]) largo++;
+            int[] nodos = Arrays.copyOf(raiz, largo);
+            int[] acum = Arrays.copyOf(acumRaiz, largo);
+            int i = raiz.length;
+            for (int v = s; v != -1; v = siguiente[v], i++) {
+                nodos[i] = v;
+                acum[i] = ds + falta[s] - falta[v];
+            }
+            return new Candidato(nodos, acum, desvio, orden++);
+        }
+
+        /*
+          A* desde s hasta el destino sin pasar por la raíz ni, desde s, por
+          los siguientes prohibidos. La heurística es falta[], la distancia
+          al destino sin prohibiciones: nunca sobreestima y es consistente.
+          Se corta sin resultado cuando el desvío ya no puede bajar de limite.
+         */
+        private Candidato buscar(int[] raiz, int[] acumRaiz, int s, int ds, long limite) {
+            heap.clear();
+            query = siguienteMarca(seen, query);
+            seen[s] = query;
+            dist[s] = 0;
+            parent[s] = -1;
+            heap.push(s, falta[s]);
+            boolean found = false;
+            while (!heap.isEmpty()) {
+                if (ds + (long) heap.minKey() >= limite) break;
+                int u = heap.poll();
+                if (u == destino) {
+                    found = true;
+                    break;
+                }
+                int du = dist[u];
+                for (int e = csr.firstEdge(u), end = csr.endEdge(u); e < end; e++) {
+                    int v = csr.target(e);
+                    if (falta[v] == INF || enRaiz[v] == marcaRaiz || v == s) continue;
+                    if (u == s && prohibido[v] == marcaProhibido) continue;
+                    int nd = du + csr.weight(e);
+                    if (seen[v] != query) {
+                        seen[v] = query;
+                        dist[v] = nd;
+                        parent[v] = u;
+                        heap.push(v, nd + falta[v]);
+                    } else if (nd < dist[v]) {
+                        dist[v] = nd;
+                        parent[v] = u;
+                        heap.push(v, nd + falta[v]);
+                    }
+                }
+            }
+            if (!found) return null;
+
+            int largo = raiz.length;
+            for (int v = destino; v != -1; v = parent[v]) largo++;
+            int[] nodos = Arrays.copyOf(raiz, largo);
+            int[] acum = Arrays.copyOf(acumRaiz, largo);
+            int i = largo - 1;
+            for (int v = destino; v != -1; v = parent[v], i--) {
+                nodos[i] = v;
+                acum[i] = ds + dist[v];
+            }
+            return new Candidato(nodos, acum, raiz.length, orden++);
+        }
+
+        //Hijo de la entrada t del árbol de prefijos que corresponde al nodo v
+        private int hijo(int t, int v) {
+            for (int h = trieHijo[t]; h != -1; h = trieHermano[h]) {
+                if (trieNodo[h] == v) return h;
+            }
+            throw new IllegalStateException("Prefijo que no está en el árbol de caminos aceptados");
+        }
+
+        private void insertarTrie(int[] nodos) {
+            if (trieTam == 0) nuevaEntrada(nodos[0]);
+            int t = 0;
+            for (int i = 1; i < nodos.length; i++) {
+                int h = trieHijo[t];
+                while (h != -1 && trieNodo[h] != nodos[i]) h = trieHermano[h];
+                if (h == -1) {
+                    h = nuevaEntrada(nodos[i]);
+                    trieHermano[h] = trieHijo[t];
+                    trieHijo[t] = h;
+                }
+                t = h;
+            }
+        }
+
+        private int nuevaEntrada(int v) {
+            if (trieTam == trieNodo.length) {
+                int cap = trieTam * 2;
+                trieNodo = Arrays.copyOf(trieNodo, cap);
+                trieHijo = Arrays.copyOf(trieHijo, cap);
+                trieHermano = Arrays.copyOf(trieHermano, cap);
+            }
+            trieNodo[trieTam] = v;
+            trieHijo[trieTam] = -1;
+            trieHermano[trieTam] = -1;
+            return trieTam++;
+        }
+    }
+
+    //Siguiente valor de una marca por consulta; al dar la vuelta limpia el arreglo
+    private static int siguienteMarca(int[] marcas, int marca) {
+        marca++;
+        if (marca == 0) {
+            Arrays.fill(marcas, 0);
+            marca = 1;
+        }
+        return marca;
+    }
+}
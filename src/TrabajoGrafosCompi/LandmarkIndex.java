@@ -0,0 +1,157 @@
+package TrabajoGrafosCompi;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.*;
+
+/*
+  Índice de landmarks para A* (ALT: A*, Landmarks y desigualdad triangular).
+  Se construye una vez por grafo: se eligen k landmarks y se guardan
+  d(L, v) y d(v, L) para cada landmark L y cada nodo v. Con eso,
+  para cualquier destino t:
+      d(v, t) >= d(L, t) - d(L, v)   y   d(v, t) >= d(v, L) - d(t, L)
+  lo que da una cota inferior admisible (y consistente) para A*.
+  El índice es inmutable y se puede compartir entre consultas e hilos.
+ */
+public final class LandmarkIndex {
+
+    static final int INF = Integer.MAX_VALUE;
+
+    //Tamaño máximo de cada tabla (el límite práctico de un arreglo en la JVM)
+    static final int MAX_CELDAS = Integer.MAX_VALUE - 8;
+
+    //Grafo compacto sobre el que se construyó el índice
+    private final GraphView csr;
+
+    private final int k;
+    private final int[] landmarks;
+
+    //Tablas por nodo: fromL[v * k + i] = d(L_i, v), toL[v * k + i] = d(v, L_i)
+    private final int[] fromL;
+    private final int[] toL;
+
+    public LandmarkIndex(Graph graph, int k) {
+        this(graph.freeze(), k);
+    }
+
+    public LandmarkIndex(GraphView csr, int k) {
+        //Con distancias negativas las cotas dejan de ser admisibles y A* pararía con una distancia mayor
+        if (csr.getM() > 0 && csr.getMinWeight() < 0) {
+            throw new IllegalArgumentException("ALT requiere distancias no negativas");
+        }
+        this.csr = csr;
+        int n = csr.getN();
+        this.k = Math.max(0, Math.min(k, n));
+        //Cada tabla es un solo arreglo de n * k enteros: tiene que caber en un int[]
+        long celdas = (long) n * this.k;
+        if (celdas > MAX_CELDAS) {
+            throw new IllegalArgumentException("Demasiados landmarks: " + n + " nodos x " + this.k
+                    + " landmarks = " + celdas + " distancias por tabla (máximo " + MAX_CELDAS + ")");
+        }
+        this.landmarks = new int[this.k];
+        this.fromL = new int[(int) celdas];
+        this.toL = new int[(int) celdas];
+        select();
+    }
+
+    /*
+      Selección "farthest": cada landmark nuevo es el nodo más lejano a los ya
+      elegidos (los nodos que ningún landmark alcanza tienen prioridad, así se
+      cubren también las componentes desconectadas). En cada ronda las dos
+      búsquedas del landmark nuevo (hacia adelante y hacia atrás) corren en
+      paralelo, y la actualización de distancias y la búsqueda del máximo
+      también se reparten entre los núcleos.
+     */
+    private void select() {
+        int n = csr.getN();
+        if (k == 0) return;
+        GraphView rev = csr.reverse();
+
+        //minCover[v] = menor d(L, v) + d(v, L) entre los landmarks elegidos
+        long[] minCover = new long[n];
+        Arrays.fill(minCover, Long.MAX_VALUE);
+
+        int next = farthestFromNodeZero();
+        for (int i = 0; i < k; i++) {
+            landmarks[i] = next;
+            final int li = i;
+            final int l = next;
+            CompletableFuture<Void> fw = CompletableFuture.runAsync(() -> fill(csr, l, li, fromL));
+            CompletableFuture<Void> bw = CompletableFuture.runAsync(() -> fill(rev, l, li, toL));
+            fw.join();
+            bw.join();
+            if (i + 1 == k) break;
+
+            IntStream.range(0, n).parallel().forEach(v -> {
+                int a = fromL[v * k + li];
+                int b = toL[v * k + li];
+                long cover = a == INF || b == INF ? Long.MAX_VALUE - 1 : (long) a + b;
+                if (cover < minCover[v]) minCover[v] = cover;
+            });
+            for (int j = 0; j <= i; j++) {
+                minCover[landmarks[j]] = -1;
+            }
+            next = IntStream.range(0, n).parallel()
+                    .reduce((x, y) -> minCover[y] > minCover[x] || (minCover[y] == minCover[x] && y < x) ? y : x)
+                    .orElse(0);
+        }
+    }
+
+    //Primer landmark: el nodo alcanzable más lejano del nodo 0
+    private int farthestFromNodeZero() {
+        DijkstraAlgoritmo dij = new DijkstraAlgoritmo(csr);
+        dij.run(0);
+        int[] dist = dij.getDistances();
+        int best = 0;
+        for (int v = 1; v < dist.length; v++) {
+            if (dist[v] != INF && dist[v] > dist[best]) best = v;
+        }
+        return best;
+    }
+
+    //Corre Dijkstra desde el landmark l y copia sus distancias a la columna i
+    private void fill(GraphView g, int l, int i, int[] table) {
+        DijkstraAlgoritmo dij = new DijkstraAlgoritmo(g);
+        dij.run(l);
+        int[] dist = dij.getDistances();
+        for (int v = 0; v < dist.length; v++) {
+            table[v * k + i] = dist[v];
+        }
+    }
+
+    /*
+      Cota inferior de d(v, t). Retorna INF si los landmarks prueban que t no
+      es alcanzable desde v.
+     */
+    public int lowerBound(int v, int t) {
+        int best = 0;
+        int bv = v * k;
+        int bt = t * k;
+        for (int i = 0; i < k; i++) {
+            int lv = fromL[bv + i];
+            int lt = fromL[bt + i];
+            //L alcanza a v pero no a t: entonces v tampoco alcanza a t
+            if (lv != INF && lt == INF) return INF;
+            if (lv != INF && lt - lv > best) best = lt - lv;
+
+            int vl = toL[bv + i];
+            int tl = toL[bt + i];
+            //t llega a L pero v no: entonces v no llega a t
+            if (tl != INF && vl == INF) return INF;
+            if (tl != INF && vl - tl > best) best = vl - tl;
+        }
+        return best;
+    }
+
+    public GraphView getGraph() {
+        return csr;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    public int[] getLandmarks() {
+        return landmarks.clone();
+    }
+}
@@ -0,0 +1,534 @@
+package TrabajoGrafosCompi;
+
+import java.util.*;
+
+/*
+  Disposición dirigida por fuerzas (Fruchterman-Reingold) para dibujar grafos
+  grandes. Cada par de nodos se repele con fuerza k²/d y cada arista atrae a
+  sus extremos con fuerza d²/k; una gravedad suave hacia el centro mantiene
+  juntas las componentes sueltas. La repulsión de todos contra todos es
+  O(n²), así que se aproxima con un quadtree de Barnes-Hut: un grupo de nodos
+  lejano (tamaño / distancia < THETA) actúa como un solo nodo en su centro
+  de masa, y cada iteración cuesta O(n log n + m).
+
+  Con miles de nodos, las fuerzas solas dejan el grafo plegado sobre sí
+  mismo. Por eso se trabaja en niveles (multinivel de Walshaw): el grafo se
+  achica uniendo pares de vecinos hasta que quedan pocos nodos, se dispone
+  ese grafo chico, y se vuelve nivel por nivel hacia el original poniendo
+  cada nodo donde quedó su representante y refinando con pocas iteraciones.
+
+  Es iterativo: cada llamada a paso() hace una iteración, y quien lo ejecuta
+  puede leer posiciones() entre pasos para mostrar el avance (en los niveles
+  gruesos cada nodo aparece en la posición de su representante), o dejar de
+  llamar a paso() para cancelarlo. No es seguro para varios hilos: se usa
+  desde un solo hilo de trabajo.
+ */
+public final class LayoutFuerzas {
+
+    //Precisión de Barnes-Hut: más chico es más exacto y más lento
+    private static final double THETA = 1.0;
+
+    //Fuerza hacia el centro, proporcional a la distancia
+    private static final double GRAVEDAD = 0.05;
+
+    private static final long SEMILLA = 42L;
+
+    //Se deja de achicar con esta cantidad de nodos, o si un nivel casi no achica
+    private static final int NODOS_NIVEL_GRUESO = 50;
+    private static final double MIN_REDUCCION = 0.9;
+
+    //Profundidad máxima del quadtree (nodos en la misma posición quedan juntos en una hoja)
+    private static final int MAX_PROFUNDIDAD = 48;
+
+    //Quadtree: valores especiales de cuerpo[]
+    private static final int VACIA = -1;
+    private static final int INTERNA = -2;
+
+    /*
+      Un nivel del grafo achicado: aristas sin repetir ni lazos, peso de cada
+      nodo (cuántos nodos originales representa) y a qué nodo del nivel
+      siguiente (más grueso) fue a parar cada uno.
+     */
+    private static final class Nivel {
+        final int n;
+        final int[] desde;
+        final int[] hacia;
+        final double[] peso;
+        int[] grueso;
+
+        Nivel(int n, int[] desde, int[] hacia, double[] peso) {
+            this.n = n;
+            this.desde = desde;
+            this.hacia = hacia;
+            this.peso = peso;
+        }
+    }
+
+    private final int n;
+    private final List<Nivel> niveles = new ArrayList<>();
+
+    //nodoEnNivel[i] = nodo del nivel actual que representa al nodo original i
+    private final int[] nodoEnNivel;
+
+    private final Random rnd = new Random(SEMILLA);
+
+    //Nivel actual (niveles.size() - 1 es el más grueso, 0 es el grafo original)
+    private int nivel;
+    private Nivel actual;
+
+    //Posiciones del nivel actual y desplazamiento acumulado de la iteración
+    private double[] x;
+    private double[] y;
+    private double[] dx;
+    private double[] dy;
+
+    private final int iteraciones;
+    private int iteracion;
+    private int iteracionesNivel;
+    private int iteracionNivel;
+    private double temperatura;
+    private double enfriamiento;
+
+    /*
+      Quadtree guardado en arreglos (se reutiliza entre iteraciones).
+      hijo[4c..4c+3] son los cuadrantes de la celda c (-1 si no existe);
+      cuerpo[c] es el nodo de una hoja con un solo nodo, VACIA o INTERNA.
+     */
+    private int celdas;
+    private int[] hijo;
+    private int[] cuerpo;
+    private double[] masa;
+    private double[] sumaX;
+    private double[] sumaY;
+    private double[] centroX;
+    private double[] centroY;
+    private double[] mitad;
+    private final int[] pila = new int[4 * MAX_PROFUNDIDAD + 8];
+
+    /*
+      Arma todos los niveles y deja listo el más grueso, con sus nodos en
+      posiciones aleatorias (con semilla fija, así el mismo grafo siempre
+      queda igual).
+     */
+    public LayoutFuerzas(GraphView graph) {
+        n = graph.getN();
+        nodoEnNivel = new int[n];
+        for (int i = 0; i < n; i++) nodoEnNivel[i] = i;
+
+        int m = graph.getM();
+        int[] desde = new int[m];
+        int[] hacia = new int[m];
+        for (int e = 0; e < m; e++) {
+            desde[e] = graph.edgeFrom(e);
+            hacia[e] = graph.edgeTo(e);
+        }
+        double[] peso = new double[n];
+        Arrays.fill(peso, 1);
+        niveles.add(sinRepetidas(n, desde, hacia, m, peso));
+
+        while (true) {
+            Nivel fino = niveles.get(niveles.size() - 1);
+            if (fino.n <= NODOS_NIVEL_GRUESO) break;
+            Nivel grueso = achicar(fino);
+            if (grueso.n > MIN_REDUCCION * fino.n) {
+                fino.grueso = null;
+                break;
+            }
+            niveles.add(grueso);
+            for (int i = 0; i < n; i++) nodoEnNivel[i] = fino.grueso[nodoEnNivel[i]];
+        }
+
+        int total = 0;
+        for (Nivel nv : niveles) total += iteracionesPara(nv, nv == niveles.get(niveles.size() - 1));
+        iteraciones = n <= 1 ? 0 : total;
+
+        nivel = niveles.size() - 1;
+        actual = niveles.get(nivel);
+        x = new double[actual.n];
+        y = new double[actual.n];
+        //Con k = 1 el área de equilibrio es del orden de n (la suma de los pesos)
+        double r = Math.sqrt(n);
+        for (int i = 0; i < actual.n; i++) {
+            x[i] = (rnd.nextDouble() - 0.5) * r;
+            y[i] = (rnd.nextDouble() - 0.5) * r;
+        }
+        empezarNivel(Math.max(1, r / 4), true);
+
+        int cap = Math.max(16, 2 * n + 1);
+        hijo = new int[4 * cap];
+        cuerpo = new int[cap];
+        masa = new double[cap];
+        sumaX = new double[cap];
+        sumaY = new double[cap];
+        centroX = new double[cap];
+        centroY = new double[cap];
+        mitad = new double[cap];
+    }
+
+    /*
+      Iteraciones de cada nivel: el más grueso parte de posiciones al azar y
+      necesita más; los otros parten de un buen dibujo y solo lo refinan, con
+      menos iteraciones cuanto más caro es el nivel.
+     */
+    private static int iteracionesPara(Nivel nv, boolean masGrueso) {
+        if (masGrueso) return nv.n <= 1_000 ? 300 : 100;
+        if (nv.n <= 1_000) return 60;
+        if (nv.n <= 10_000) return 30;
+        return 20;
+    }
+
+    private void empezarNivel(double temperaturaInicial, boolean masGrueso) {
+        iteracionesNivel = iteracionesPara(actual, masGrueso);
+        iteracionNivel = 0;
+        dx = new double[actual.n];
+        dy = new double[actual.n];
+        temperatura = temperaturaInicial;
+        //Al final del nivel la temperatura llega a un 5% de la inicial
+        enfriamiento = Math.pow(0.05, 1.0 / iteracionesNivel);
+    }
+
+    //Elimina lazos y aristas repetidas (en cualquier sentido): no cambian el dibujo
+    private static Nivel sinRepetidas(int n, int[] desde, int[] hacia, int m, double[] peso) {
+        long[] claves = new long[m];
+        int k = 0;
+        for (int e = 0; e < m; e++) {
+            int u = Math.min(desde[e], hacia[e]);
+            int v = Math.max(desde[e], hacia[e]);
+            if (u != v) claves[k++] = (long) u << 32 | v;
+        }
+        Arrays.sort(claves, 0, k);
+        int unicas = 0;
+        for (int i = 0; i < k; i++) {
+            if (i == 0 || claves[i] != claves[i - 1]) claves[unicas++] = claves[i];
+        }
+        int[] d = new int[unicas];
+        int[] h = new int[unicas];
+        for (int i = 0; i < unicas; i++) {
+            d[i] = (int) (claves[i] >>> 32);
+            h[i] = (int) claves[i];
+        }
+        return new Nivel(n, d, h, peso);
+    }
+
+    /*
+      Une cada nodo con un vecino libre de poco peso (emparejamiento goloso
+      en orden aleatorio). Los nodos sin vecino libre pasan solos.
+     */
+    private Nivel achicar(Nivel fino) {
+        int nf = fino.n;
+        int mf = fino.desde.length;
+        //Adyacencia sin dirección del nivel fino
+        int[] inicio = new int[nf + 1];
+        for (int e = 0; e < mf; e++) {
+            inicio[fino.desde[e] + 1]++;
+            inicio[fino.hacia[e] + 1]++;
+        }
+        for (int v = 0; v < nf; v++) inicio[v + 1] += inicio[v];
+        int[] vecinos = new int[2 * mf];
+        int[] pos = Arrays.copyOf(inicio, nf);
+        for (int e = 0; e < mf; e++) {
+            vecinos[pos[fino.desde[e]]++] = fino.hacia[e];
+            vecinos[pos[fino.hacia[e]]++] = fino.desde[e];
+        }
+
+        int[] orden = new int[nf];
+        for (int i = 0; i < nf; i++) orden[i] = i;
+        for (int i = nf - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            int t = orden[i];
+            orden[i] = orden[j];
+            orden[j] = t;
+        }
+
+        int[] grueso = new int[nf];
+        Arrays.fill(grueso, -1);
+        int ng = 0;
+        double[] pesoG = new double[nf];
+        for (int u : orden) {
+            if (grueso[u] >= 0) continue;
+            int mejor = -1;
+            for (int k = inicio[u]; k < inicio[u + 1]; k++) {
+                int v = vecinos[k];
+                if (grueso[v] < 0 && (mejor < 0 || fino.peso[v] < fino.peso[mejor])) mejor = v;
+            }
+            grueso[u] = ng;
+            pesoG[ng] = fino.peso[u];
+            if (mejor >= 0) {
+                grueso[mejor] = ng;
+                pesoG[ng] += fino.peso[mejor];
+            }
+            ng++;
+        }
+        fino.grueso = grueso;
+
+        int[] desde = new int[mf];
+        int[] hacia = new int[mf];
+        for (int e = 0; e < mf; e++) {
+            desde[e] = grueso[fino.desde[e]];
+            hacia[e] = grueso[fino.hacia[e]];
+        }
+        return sinRepetidas(ng, desde, hacia, mf, Arrays.copyOf(pesoG, ng));
+    }
+
+    public int getIteraciones() {
+        return iteraciones;
+    }
+
+    public int getIteracion() {
+        return iteracion;
+    }
+
+    public boolean terminado() {
+        return n <= 1 || (nivel == 0 && iteracionNivel >= iteracionesNivel);
+    }
+
+    /*
+      Hace una iteración (y pasa al nivel siguiente si el actual terminó).
+      Retorna false si ya había terminado.
+     */
+    public boolean paso() {
+        if (terminado()) return false;
+        if (iteracionNivel >= iteracionesNivel) refinar();
+
+        construirArbol();
+        double[] peso = actual.peso;
+        for (int i = 0; i < actual.n; i++) {
+            repulsion(i);
+            //Gravedad hacia el origen
+            dx[i] -= GRAVEDAD * x[i];
+            dy[i] -= GRAVEDAD * y[i];
+        }
+
+        //Atracción por aristas (sin dirección: u atrae a v y v a u)
+        int[] desde = actual.desde;
+        int[] hacia = actual.hacia;
+        for (int e = 0; e < desde.length; e++) {
+            int u = desde[e];
+            int v = hacia[e];
+            double ddx = x[v] - x[u];
+            double ddy = y[v] - y[u];
+            //d²/k en la dirección de la arista, con k = 1: (ddx, ddy) * d
+            double d = Math.sqrt(ddx * ddx + ddy * ddy);
+            dx[u] += ddx * d / peso[u];
+            dy[u] += ddy * d / peso[u];
+            dx[v] -= ddx * d / peso[v];
+            dy[v] -= ddy * d / peso[v];
+        }
+
+        //Mover cada nodo como mucho la temperatura actual
+        for (int i = 0; i < actual.n; i++) {
+            double len = Math.sqrt(dx[i] * dx[i] + dy[i] * dy[i]);
+            if (len > 0) {
+                double paso = Math.min(len, temperatura) / len;
+                x[i] += dx[i] * paso;
+                y[i] += dy[i] * paso;
+            }
+            dx[i] = 0;
+            dy[i] = 0;
+        }
+        temperatura *= enfriamiento;
+        iteracionNivel++;
+        iteracion++;
+        return true;
+    }
+
+    /*
+      Baja al nivel más fino siguiente: cada nodo empieza en la posición de su
+      representante, con un pequeño desvío para que los pares se separen.
+      Las coordenadas están siempre en la escala del grafo original (un nodo
+      de peso w ocupa un área w), así que no hace falta estirarlas.
+     */
+    private void refinar() {
+        nivel--;
+        actual = niveles.get(nivel);
+        double separacion = separacion();
+        double[] nx = new double[actual.n];
+        double[] ny = new double[actual.n];
+        for (int i = 0; i < actual.n; i++) {
+            int g = actual.grueso[i];
+            nx[i] = x[g] + (rnd.nextDouble() - 0.5) * separacion;
+            ny[i] = y[g] + (rnd.nextDouble() - 0.5) * separacion;
+        }
+        x = nx;
+        y = ny;
+
+        //Representante de cada nodo original en el nivel nuevo (composición de los mapas)
+        for (int i = 0; i < n; i++) nodoEnNivel[i] = i;
+        for (int l = 0; l < nivel; l++) {
+            int[] g = niveles.get(l).grueso;
+            for (int i = 0; i < n; i++) nodoEnNivel[i] = g[nodoEnNivel[i]];
+        }
+
+        empezarNivel(2 * separacion, false);
+    }
+
+    //Distancia típica entre nodos del nivel actual
+    private double separacion() {
+        return Math.sqrt((double) n / actual.n);
+    }
+
+    /*
+      Copia de las posiciones escaladas a [0, 1] manteniendo la proporción
+      (x en pos[2i], y en pos[2i+1]). El panel las lleva a píxeles.
+     */
+    public float[] posiciones() {
+        float[] pos = new float[2 * n];
+        if (n == 0) return pos;
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int i = 0; i < actual.n; i++) {
+            minX = Math.min(minX, x[i]);
+            maxX = Math.max(maxX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxY = Math.max(maxY, y[i]);
+        }
+        double lado = Math.max(maxX - minX, maxY - minY);
+        if (lado == 0) lado = 1;
+        //Centrado en el eje más corto
+        double offX = (lado - (maxX - minX)) / 2;
+        double offY = (lado - (maxY - minY)) / 2;
+        for (int i = 0; i < n; i++) {
+            int v = nodoEnNivel[i];
+            pos[2 * i] = (float) ((x[v] - minX + offX) / lado);
+            pos[2 * i + 1] = (float) ((y[v] - minY + offY) / lado);
+        }
+        return pos;
+    }
+
+    //Arma el quadtree con las posiciones actuales
+    private void construirArbol() {
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int i = 0; i < actual.n; i++) {
+            minX = Math.min(minX, x[i]);
+            maxX = Math.max(maxX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxY = Math.max(maxY, y[i]);
+        }
+        celdas = 0;
+        int raiz = nuevaCelda((minX + maxX) / 2, (minY + maxY) / 2,
+                Math.max(maxX - minX, maxY - minY) / 2 + 1e-9);
+        for (int i = 0; i < actual.n; i++) {
+            insertar(raiz, i);
+        }
+        //Sumas ponderadas a centro de masa
+        for (int c = 0; c < celdas; c++) {
+            if (masa[c] > 0) {
+                sumaX[c] /= masa[c];
+                sumaY[c] /= masa[c];
+            }
+        }
+    }
+
+    private int nuevaCelda(double cx, double cy, double h) {
+        if (celdas == cuerpo.length) {
+            int cap = celdas * 2;
+            hijo = Arrays.copyOf(hijo, 4 * cap);
+            cuerpo = Arrays.copyOf(cuerpo, cap);
+            masa = Arrays.copyOf(masa, cap);
+            sumaX = Arrays.copyOf(sumaX, cap);
+            sumaY = Arrays.copyOf(sumaY, cap);
+            centroX = Arrays.copyOf(centroX, cap);
+            centroY = Arrays.copyOf(centroY, cap);
+            mitad = Arrays.copyOf(mitad, cap);
+        }
+        int c = celdas++;
+        hijo[4 * c] = hijo[4 * c + 1] = hijo[4 * c + 2] = hijo[4 * c + 3] = -1;
+        cuerpo[c] = VACIA;
+        masa[c] = 0;
+        sumaX[c] = 0;
+        sumaY[c] = 0;
+        centroX[c] = cx;
+        centroY[c] = cy;
+        mitad[c] = h;
+        return c;
+    }
+
+    private int cuadrante(int c, double px, double py) {
+        return (px >= centroX[c] ? 1 : 0) | (py >= centroY[c] ? 2 : 0);
+    }
+
+    private int hijoDe(int c, int q) {
+        int h = hijo[4 * c + q];
+        if (h < 0) {
+            double m = mitad[c] / 2;
+            h = nuevaCelda(centroX[c] + ((q & 1) != 0 ? m : -m), centroY[c] + ((q & 2) != 0 ? m : -m), m);
+            hijo[4 * c + q] = h;
+        }
+        return h;
+    }
+
+    private boolean sinHijos(int c) {
+        return hijo[4 * c] < 0 && hijo[4 * c + 1] < 0 && hijo[4 * c + 2] < 0 && hijo[4 * c + 3] < 0;
+    }
+
+    private void sumar(int c, int i) {
+        double w = actual.peso[i];
+        masa[c] += w;
+        sumaX[c] += w * x[i];
+        sumaY[c] += w * y[i];
+    }
+
+    private void insertar(int c, int i) {
+        for (int prof = 0; ; prof++) {
+            if (cuerpo[c] == VACIA) {
+                cuerpo[c] = i;
+                sumar(c, i);
+                return;
+            }
+            if (prof >= MAX_PROFUNDIDAD) {
+                //Nodos casi en la misma posición: quedan juntos en esta hoja
+                cuerpo[c] = INTERNA;
+                sumar(c, i);
+                return;
+            }
+            if (cuerpo[c] >= 0) {
+                //La hoja tenía un nodo: se baja a su cuadrante
+                int b = cuerpo[c];
+                cuerpo[c] = INTERNA;
+                int hb = hijoDe(c, cuadrante(c, x[b], y[b]));
+                cuerpo[hb] = b;
+                sumar(hb, b);
+            }
+            sumar(c, i);
+            c = hijoDe(c, cuadrante(c, x[i], y[i]));
+        }
+    }
+
+    //Acumula en dx/dy la repulsión sobre el nodo i
+    private void repulsion(int i) {
+        double xi = x[i];
+        double yi = y[i];
+        double fx = 0;
+        double fy = 0;
+        int top = 0;
+        pila[top++] = 0;
+        while (top > 0) {
+            int c = pila[--top];
+            if (cuerpo[c] == i) continue;
+            double ddx = xi - sumaX[c];
+            double ddy = yi - sumaY[c];
+            double d2 = ddx * ddx + ddy * ddy;
+            double lado = 2 * mitad[c];
+            if (cuerpo[c] >= 0 || lado * lado < THETA * THETA * d2 || sinHijos(c)) {
+                if (d2 < 1e-12) {
+                    //Mismo punto: empujón determinista para separarlos
+                    d2 = 1e-4;
+                    ddx = ((i & 1) == 0 ? 1e-2 : -1e-2);
+                    ddy = ((i & 2) == 0 ? 1e-2 : -1e-2);
+                }
+                //k²/d en la dirección (ddx, ddy)/d, con k = 1: (ddx, ddy) * masa / d²
+                double f = masa[c] / d2;
+                fx += ddx * f;
+                fy += ddy * f;
+            } else {
+                for (int q = 0; q < 4; q++) {
+                    int h = hijo[4 * c + q];
+                    if (h >= 0) pila[top++] = h;
+                }
+            }
+        }
+        dx[i] += fx;
+        dy[i] += fy;
+    }
+}
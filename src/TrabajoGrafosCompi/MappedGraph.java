@@ -0,0 +1,268 @@
+package TrabajoGrafosCompi;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+
+/*
+  Grafo guardado en un archivo binario y leído por memoria mapeada.
+  write() guarda una vez los arreglos del CSR; open() solo valida la cabecera
+  y mapea cada sección, sin recorrer las aristas, así que abrir un mapa de
+  varios GB es instantáneo y los algoritmos leen directo del archivo
+  (el sistema operativo trae las páginas a medida que se usan).
+
+  Formato (enteros de 32 bits, little-endian):
+      cabecera de 32 bytes:
+          magia "RJGB", versión, banderas, n, m, peso mínimo, peso máximo, 0
+      victimas[n]
+      offsets[n + 1], targets[m], weights[m]          (adyacencia CSR)
+      edgeFrom[m], edgeTo[m], edgeWeight[m]           (orden de inserción)
+      si la bandera CON_INVERSO está: revOffsets[n + 1], revTargets[m], revWeights[m]
+  Cada sección se mapea por separado, por lo que cada una puede ocupar
+  hasta 2 GB (unos 536 millones de aristas) aunque el archivo sea más grande.
+ */
+public final class MappedGraph implements GraphView {
+
+    public static final int MAGIA = 0x42474A52; //"RJGB" leído en little-endian
+    public static final int VERSION = 1;
+
+    //Banderas de la cabecera
+    public static final int CON_INVERSO = 1;
+
+    private static final int CABECERA = 32;
+
+    private final int n;
+    private final int m;
+    private final int minWeight;
+    private final int maxWeight;
+
+    private final IntBuffer victimas;
+    private final IntBuffer offsets;
+    private final IntBuffer targets;
+    private final IntBuffer weights;
+    private final IntBuffer edgeFrom;
+    private final IntBuffer edgeTo;
+    private final IntBuffer edgeWeight;
+
+    //Transpuesto: el guardado en el archivo o uno armado en memoria al pedirlo
+    private volatile GraphView reverse;
+
+    private MappedGraph(int n, int m, int minWeight, int maxWeight, IntBuffer victimas,
+                        IntBuffer offsets, IntBuffer targets, IntBuffer weights,
+                        IntBuffer edgeFrom, IntBuffer edgeTo, IntBuffer edgeWeight) {
+        this.n = n;
+        this.m = m;
+        this.minWeight = minWeight;
+        this.maxWeight = maxWeight;
+        this.victimas = victimas;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.edgeFrom = edgeFrom;
+        this.edgeTo = edgeTo;
+        this.edgeWeight = edgeWeight;
+    }
+
+    //Guarda el grafo en formato binario (con el transpuesto si conInverso)
+    public static void write(GraphView g, Path file, boolean conInverso) throws IOException {
+        int n = g.getN();
+        int m = g.getM();
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Writer w = new Writer(ch);
+            w.put(MAGIA);
+            w.put(VERSION);
+            w.put(conInverso ? CON_INVERSO : 0);
+            w.put(n);
+            w.put(m);
+            w.put(g.getMinWeight());
+            w.put(g.getMaxWeight());
+            w.put(0);
+            for (int v = 0; v < n; v++) w.put(g.victims(v));
+            writeAdjacency(w, g);
+            for (int i = 0; i < m; i++) w.put(g.edgeFrom(i));
+            for (int i = 0; i < m; i++) w.put(g.edgeTo(i));
+            for (int i = 0; i < m; i++) w.put(g.edgeWeight(i));
+            if (conInverso) writeAdjacency(w, g.reverse());
+            w.flush();
+        }
+    }
+
+    private static void writeAdjacency(Writer w, GraphView g) throws IOException {
+        int n = g.getN();
+        for (int u = 0; u < n; u++) w.put(g.firstEdge(u));
+        w.put(n == 0 ? 0 : g.endEdge(n - 1));
+        for (int e = 0; e < g.getM(); e++) w.put(g.target(e));
+        for (int e = 0; e < g.getM(); e++) w.put(g.weight(e));
+    }
+
+    /*
+      Abre un archivo escrito con write(). Solo se revisan la cabecera y el
+      tamaño del archivo; el contenido se confía tal cual fue escrito.
+     */
+    public static MappedGraph open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < CABECERA) throw new IOException("Archivo de grafo incompleto: " + file);
+            IntBuffer h = map(ch, 0, CABECERA / 4);
+            if (h.get(0) != MAGIA) throw new IOException("No es un archivo de grafo: " + file);
+            if (h.get(1) != VERSION) {
+                throw new IOException("Versión de archivo no soportada: " + h.get(1));
+            }
+            int flags = h.get(2);
+            int n = h.get(3);
+            int m = h.get(4);
+            if (n < 0 || m < 0) throw new IOException("Cabecera inválida: n=" + n + ", m=" + m);
+            boolean conInverso = (flags & CON_INVERSO) != 0;
+            long ints = n + (n + 1L) + 5L * m + (conInverso ? (n + 1L) + 2L * m : 0);
+            if (size != CABECERA + 4 * ints) {
+                throw new IOException("Tamaño de archivo inesperado: " + size + " bytes");
+            }
+
+            long pos = CABECERA;
+            IntBuffer victimas = map(ch, pos, n);
+            pos += 4L * n;
+            IntBuffer offsets = map(ch, pos, n + 1L);
+            pos += 4L * (n + 1);
+            IntBuffer targets = map(ch, pos, m);
+            pos += 4L * m;
+            IntBuffer weights = map(ch, pos, m);
+            pos += 4L * m;
+            IntBuffer from = map(ch, pos, m);
+            pos += 4L * m;
+            IntBuffer to = map(ch, pos, m);
+            pos += 4L * m;
+            IntBuffer weight = map(ch, pos, m);
+            pos += 4L * m;
+
+            MappedGraph g = new MappedGraph(n, m, h.get(5), h.get(6), victimas,
+                    offsets, targets, weights, from, to, weight);
+            if (conInverso) {
+                IntBuffer revOffsets = map(ch, pos, n + 1L);
+                pos += 4L * (n + 1);
+                IntBuffer revTargets = map(ch, pos, m);
+                pos += 4L * m;
+                IntBuffer revWeights = map(ch, pos, m);
+                //En el transpuesto el orden de inserción es el mismo con u y v cambiados
+                MappedGraph r = new MappedGraph(n, m, g.minWeight, g.maxWeight, victimas,
+                        revOffsets, revTargets, revWeights, to, from, weight);
+                r.reverse = g;
+                g.reverse = r;
+            }
+            return g;
+        }
+    }
+
+    //El mapeo sigue siendo válido después de cerrar el canal
+    private static IntBuffer map(FileChannel ch, long pos, long count) throws IOException {
+        if (4 * count > Integer.MAX_VALUE) {
+            throw new IOException("Sección de " + count + " enteros demasiado grande para mapear");
+        }
+        return ch.map(FileChannel.MapMode.READ_ONLY, pos, 4 * count)
+                .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+
+    /*
+      Copia el grafo al heap como un Graph (por ejemplo, para seguir
+      agregando aristas o para no depender del archivo).
+     */
+    public Graph toGraph() {
+        Graph g = new Graph(n, m);
+        for (int i = 0; i < m; i++) {
+            int v = edgeTo.get(i);
+            g.addEdge(edgeFrom.get(i), v, edgeWeight.get(i), victimas.get(v));
+        }
+        return g;
+    }
+
+    public int getN() {
+        return n;
+    }
+
+    public int getM() {
+        return m;
+    }
+
+    public int victims(int v) {
+        return victimas.get(v);
+    }
+
+    public int firstEdge(int u) {
+        return offsets.get(u);
+    }
+
+    public int endEdge(int u) {
+        return offsets.get(u + 1);
+    }
+
+    public int target(int e) {
+        return targets.get(e);
+    }
+
+    public int weight(int e) {
+        return weights.get(e);
+    }
+
+    public int edgeFrom(int i) {
+        return edgeFrom.get(i);
+    }
+
+    public int edgeTo(int i) {
+        return edgeTo.get(i);
+    }
+
+    public int edgeWeight(int i) {
+        return edgeWeight.get(i);
+    }
+
+    /*
+      Si el archivo no trae el transpuesto, se arma en memoria la primera vez
+      (esa es la única operación que recorre todas las aristas).
+     */
+    public GraphView reverse() {
+        GraphView r = reverse;
+        if (r == null) {
+            int[] vic = new int[n];
+            int[] from = new int[m];
+            int[] to = new int[m];
+            int[] weight = new int[m];
+            victimas.duplicate().get(vic);
+            edgeTo.duplicate().get(from);
+            edgeFrom.duplicate().get(to);
+            edgeWeight.duplicate().get(weight);
+            r = new CsrGraph(n, m, vic, from, to, weight, minWeight, maxWeight);
+            reverse = r;
+        }
+        return r;
+    }
+
+    public int getMinWeight() {
+        return minWeight;
+    }
+
+    public int getMaxWeight() {
+        return maxWeight;
+    }
+
+    //Escritura con un búfer de 1 MB para no hacer una llamada al sistema por entero
+    private static final class Writer {
+        private final FileChannel ch;
+        private final ByteBuffer buf = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+
+        Writer(FileChannel ch) {
+            this.ch = ch;
+        }
+
+        void put(int x) throws IOException {
+            if (!buf.hasRemaining()) flush();
+            buf.putInt(x);
+        }
+
+        void flush() throws IOException {
+            buf.flip();
+            while (buf.hasRemaining()) ch.write(buf);
+            buf.clear();
+        }
+    }
+}
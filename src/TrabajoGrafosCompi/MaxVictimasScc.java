@@ -0,0 +1,360 @@
+package TrabajoGrafosCompi;
+
+import java.util.*;
+
+/*
+  Máximas víctimas exactas con la regla "cada nodo cuenta una sola vez".
+  Dentro de una componente fuertemente conexa (SCC) se puede recorrer todos
+  los nodos y salir por cualquiera, así que:
+    1. Se buscan las SCC alcanzables desde el origen con Tarjan iterativo.
+    2. Cada SCC se colapsa en un super-nodo que vale la suma de sus víctimas.
+    3. El grafo de componentes es un DAG: el camino más largo se calcula en
+       orden topológico.
+  Todo es O(V + E). El origen no aporta víctimas (igual que BellmanFordMax).
+  getPath devuelve un recorrido concreto: dentro de cada SCC visita todos sus
+  nodos antes de salir, por lo que puede repetir nodos.
+ */
+public class MaxVictimasScc {
+
+    private final Graph graph;
+
+    //Grafo compacto usado en la última ejecución
+    private GraphView csr;
+
+    private int inicio;
+
+    //Máximas víctimas llegando a cada nodo, -1 si no es alcanzable
+    private int[] maxVictimas;
+
+    //Componente de cada nodo (-1 si no es alcanzable). Tarjan las numera en
+    //orden topológico inverso: las aristas entre componentes van de mayor a menor id
+    private int[] comp;
+    private int numComps;
+
+    //Nodos de cada componente: compNodes[compStart[c] .. compStart[c + 1])
+    private int[] compNodes;
+    private int[] compStart;
+
+    //Mejor valor de cada componente y la arista por la que se entra a ella
+    private long[] best;
+    private int[] entryFrom;
+    private int[] entryTo;
+
+    //Espacio de trabajo de getPath, indexado por nodo y reutilizado entre
+    //componentes: una marca es válida solo si vale stamp
+    private int[] outParent;
+    private int[] inParent;
+    private int[] firstChild;
+    private int[] nextSibling;
+    private int[] pre;
+    private int[] subSize;
+    private int[] order;
+    private int[] stack;
+    private int[] seenOut;
+    private int[] seenIn;
+    private int[] visited;
+    private int stamp;
+
+    public MaxVictimasScc(Graph graph) {
+        this.graph = graph;
+    }
+
+    //Ejecuta sobre un grafo fijo (por ejemplo, un MappedGraph abierto de disco)
+    public MaxVictimasScc(GraphView csr) {
+        this.graph = null;
+        this.csr = csr;
+    }
+
+    public void run(int inicio) {
+        if (graph != null) csr = graph.freeze();
+        this.inicio = inicio;
+        int n = csr.getN();
+        if (maxVictimas == null || maxVictimas.length != n) {
+            maxVictimas = new int[n];
+            comp = new int[n];
+            compNodes = new int[n];
+            compStart = new int[n + 1];
+            best = new long[n];
+            entryFrom = new int[n];
+            entryTo = new int[n];
+        }
+        tarjan(inicio);
+        longestPath();
+    }
+
+    /*
+      Tarjan iterativo desde el origen, con pilas en arreglos primitivos.
+      Al cerrarse cada componente sus nodos quedan contiguos en compNodes.
+     */
+    private void tarjan(int start) {
+        int n = csr.getN();
+        int[] index = new int[n];
+        int[] low = new int[n];
+        int[] iter = new int[n];
+        int[] stack = new int[n];
+        int[] call = new int[n];
+        boolean[] onStack = new boolean[n];
+        Arrays.fill(index, -1);
+        Arrays.fill(comp, -1);
+
+        int counter = 0;
+        int sp = 0;
+        int cp = 0;
+        int filled = 0;
+        numComps = 0;
+
+        index[start] = low[start] = counter++;
+        iter[start] = csr.firstEdge(start);
+        stack[sp++] = start;
+        onStack[start] = true;
+        call[cp++] = start;
+
+        while (cp > 0) {
+            int v = call[cp - 1];
+            if (iter[v] < csr.endEdge(v)) {
+                int w = csr.target(iter[v]++);
+                if (index[w] == -1) {
+                    index[w] = low[w] = counter++;
+                    iter[w] = csr.firstEdge(w);
+                    stack[sp++] = w;
+                    onStack[w] = true;
+                    call[cp++] = w;
+                } else if (onStack[w] && index[w] < low[v]) {
+                    low[v] = index[w];
+                }
+                continue;
+            }
+            //Terminamos v: propagamos low al padre en la pila de llamadas
+            cp--;
+            if (cp > 0) {
+                int p = call[cp - 1];
+                if (low[v] < low[p]) low[p] = low[v];
+            }
+            if (low[v] == index[v]) {
+                compStart[numComps] = filled;
+                int w;
+                do {
+                    w = stack[--sp];
+                    onStack[w] = false;
+                    comp[w] = numComps;
+                    compNodes[filled++] = w;
+                } while (w != v);
+                numComps++;
+            }
+        }
+        compStart[numComps] = filled;
+    }
+
+    /*
+      Camino más largo en el DAG de componentes. La componente del origen es la
+      última que cerró Tarjan (id más alto), así que basta recorrer los ids de
+      mayor a menor.
+     */
+    private void longestPath() {
+        long[] total = new long[numComps];
+        for (int c = 0; c < numComps; c++) {
+            for (int i = compStart[c]; i < compStart[c + 1]; i++) {
+                total[c] += csr.victims(compNodes[i]);
+            }
+            best[c] = -1;
+            entryFrom[c] = -1;
+            entryTo[c] = -1;
+        }
+        int startComp = comp[inicio];
+        best[startComp] = total[startComp] - csr.victims(inicio);
+
+        for (int c = startComp; c >= 0; c--) {
+            if (best[c] < 0) continue;
+            for (int i = compStart[c]; i < compStart[c + 1]; i++) {
+                int u = compNodes[i];
+                for (int e = csr.firstEdge(u), end = csr.endEdge(u); e < end; e++) {
+                    int d = comp[csr.target(e)];
+                    if (d == c) continue;
+                    long cand = best[c] + total[d];
+                    if (cand > best[d]) {
+                        best[d] = cand;
+                        entryFrom[d] = u;
+                        entryTo[d] = csr.target(e);
+                    }
+                }
+            }
+        }
+
+        for (int v = 0; v < maxVictimas.length; v++) {
+            int c = comp[v];
+            maxVictimas[v] = c < 0 ? -1 : (int) Math.min(best[c], Integer.MAX_VALUE);
+        }
+    }
+
+    /*
+      Recorrido concreto desde el origen hasta fin. Se sigue la cadena de
+      componentes hacia atrás desde fin y luego, en cada componente, se arma un
+      paseo que entra por su nodo de entrada, visita todos sus nodos y sale por
+      el nodo que conecta con la siguiente.
+     */
+    public List<Integer> getPath(int fin) {
+        List<Integer> path = new ArrayList<>();
+        if (maxVictimas[fin] < 0) return path; //Sin camino
+
+        //Componentes desde la del destino hasta la del origen
+        List<Integer> chain = new ArrayList<>();
+        for (int c = comp[fin]; c != -1; c = entryTo[c] == -1 ? -1 : comp[entryFrom[c]]) {
+            chain.add(c);
+        }
+        Collections.reverse(chain);
+
+        int entry = inicio;
+        for (int i = 0; i < chain.size(); i++) {
+            int c = chain.get(i);
+            int exit = i + 1 < chain.size() ? entryFrom[chain.get(i + 1)] : fin;
+            walkComponent(c, entry, exit, path);
+            if (i + 1 < chain.size()) entry = entryTo[chain.get(i + 1)];
+        }
+        return path;
+    }
+
+    /*
+      Agrega a path un paseo dentro de la componente c que empieza en a, pasa
+      por todos sus nodos y termina en b. Usa un árbol BFS de salida desde a y
+      otro de llegada hacia a (sobre el grafo transpuesto). Los nodos se
+      visitan en preorden del árbol de salida: desde el nodo actual se sube por
+      el árbol de llegada solo hasta el primer ancestro (en el árbol de salida)
+      del siguiente nodo y desde ahí se baja. Así, por ejemplo, las hojas de un
+      mismo padre se recorren pasando por el padre y no volviendo cada vez a a.
+     */
+    private void walkComponent(int c, int a, int b, List<Integer> path) {
+        int from = compStart[c];
+        int to = compStart[c + 1];
+        if (to - from == 1) {
+            path.add(a);
+            return;
+        }
+        int n = csr.getN();
+        if (outParent == null || outParent.length != n) {
+            outParent = new int[n];
+            inParent = new int[n];
+            firstChild = new int[n];
+            nextSibling = new int[n];
+            pre = new int[n];
+            subSize = new int[n];
+            order = new int[n];
+            stack = new int[n];
+            seenOut = new int[n];
+            seenIn = new int[n];
+            visited = new int[n];
+            stamp = 0;
+        }
+        stamp++;
+        int size = to - from;
+        bfsTree(csr, c, a, outParent, seenOut);
+        bfsTree(csr.reverse(), c, a, inParent, seenIn);
+        preorder(a, size);
+
+        path.add(a);
+        visited[a] = stamp;
+        int cur = a;
+        for (int i = 1; i < size; i++) {
+            int x = order[i];
+            if (visited[x] == stamp) continue;
+            cur = appendRoute(cur, x, path);
+        }
+        if (cur != b) appendRoute(cur, b, path);
+    }
+
+    /*
+      Ruta cur -> x: sube por el árbol de llegada hasta un ancestro y de x en
+      el árbol de salida (a siempre lo es) y baja por el árbol de salida hasta
+      x. Retorna x.
+     */
+    private int appendRoute(int cur, int x, List<Integer> path) {
+        int y = cur;
+        while (!isAncestor(y, x)) {
+            y = inParent[y];
+            path.add(y);
+            visited[y] = stamp;
+        }
+        int mark = path.size();
+        for (int z = x; z != y; z = outParent[z]) {
+            path.add(z);
+            visited[z] = stamp;
+        }
+        Collections.reverse(path.subList(mark, path.size()));
+        return x;
+    }
+
+    //y es ancestro de x (o el mismo x) en el árbol de salida
+    private boolean isAncestor(int y, int x) {
+        return pre[y] <= pre[x] && pre[x] < pre[y] + subSize[y];
+    }
+
+    /*
+      BFS desde a restringido a la componente c; parent[v] = nodo anterior en
+      el árbol. seen marca con stamp los nodos ya alcanzados en esta componente.
+     */
+    private void bfsTree(GraphView g, int c, int a, int[] parent, int[] seen) {
+        int head = 0;
+        int tail = 0;
+        parent[a] = -1;
+        seen[a] = stamp;
+        order[tail++] = a;
+        while (head < tail) {
+            int u = order[head++];
+            for (int e = g.firstEdge(u), end = g.endEdge(u); e < end; e++) {
+                int v = g.target(e);
+                if (comp[v] == c && seen[v] != stamp) {
+                    seen[v] = stamp;
+                    parent[v] = u;
+                    order[tail++] = v;
+                }
+            }
+        }
+    }
+
+    /*
+      Preorden del árbol de salida con raíz a: order[0 .. size) queda con los
+      nodos en preorden, pre[v] es la posición de v y subSize[v] el tamaño de
+      su subárbol, de modo que el subárbol de v ocupa pre[v] .. pre[v] + subSize[v].
+     */
+    private void preorder(int a, int size) {
+        int from = compStart[comp[a]];
+        for (int i = from; i < from + size; i++) firstChild[compNodes[i]] = -1;
+        for (int i = from; i < from + size; i++) {
+            int v = compNodes[i];
+            int p = outParent[v];
+            if (p == -1) continue;
+            nextSibling[v] = firstChild[p];
+            firstChild[p] = v;
+        }
+
+        int sp = 0;
+        int k = 0;
+        stack[sp++] = a;
+        while (sp > 0) {
+            int v = stack[--sp];
+            pre[v] = k;
+            order[k++] = v;
+            subSize[v] = 1;
+            for (int w = firstChild[v]; w != -1; w = nextSibling[w]) stack[sp++] = w;
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int v = order[i];
+            subSize[outParent[v]] += subSize[v];
+        }
+    }
+
+    //Máximas victimas recolectadas llegando a fin, o -1 si no es alcanzable
+    public int getMaxVictima(int fin) {
+        return maxVictimas[fin];
+    }
+
+    //Calculamos la distancia total de un camino dado
+    public int calcDistancia(List<Integer> path) {
+        if (path.size() < 2) return 0;
+        return (csr != null ? csr : graph.freeze()).pathDistance(path);
+    }
+
+    //Número de componentes fuertemente conexas alcanzables en la última ejecución
+    public int getNumComponentes() {
+        return numComps;
+    }
+}
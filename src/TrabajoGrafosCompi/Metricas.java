@@ -0,0 +1,290 @@
+package TrabajoGrafosCompi;
+
+import jdk.jfr.*;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+  Instrumentación opcional de DijkstraAlgoritmo y BellmanFordMax.
+  Se activa arrancando la JVM con -Dgrafos.metricas=true. ACTIVAS es una
+  constante (static final), así que con las métricas apagadas el JIT elimina
+  los "if (Metricas.ACTIVAS)" del ciclo principal y el costo es nulo.
+
+  Con las métricas activas, cada consulta acumula sus contadores en variables
+  locales y los suma al final en contadores repartidos (LongAdder), para que
+  varios hilos consultando a la vez no compitan por la misma línea de caché.
+  Los totales se publican por JMX (MetricasMXBean) y cada consulta además
+  emite un evento de JFR (TrabajoGrafosCompi.Dijkstra /
+  TrabajoGrafosCompi.BellmanFord) visible en una grabación de Flight Recorder.
+ */
+public final class Metricas implements MetricasMXBean {
+
+    public static final boolean ACTIVAS = Boolean.getBoolean("grafos.metricas");
+
+    public static final String NOMBRE_JMX = "TrabajoGrafosCompi:type=Metricas";
+
+    private static final Metricas INSTANCIA = new Metricas();
+
+    private final LongAdder consultasDijkstra = new LongAdder();
+    private final LongAdder nodosAsentados = new LongAdder();
+    private final LongAdder relajacionesDijkstra = new LongAdder();
+    private final LongAdder insercionesCola = new LongAdder();
+    private final LongAccumulator picoCola = new LongAccumulator(Math::max, 0);
+
+    private final LongAdder consultasBellmanFord = new LongAdder();
+    private final LongAdder pasadasBellmanFord = new LongAdder();
+    private final LongAdder relajacionesBellmanFord = new LongAdder();
+    private final LongAdder bellmanFordSinConvergencia = new LongAdder();
+
+    private final Histograma preparacionDijkstra = new Histograma();
+    private final Histograma busquedaDijkstra = new Histograma();
+    private final Histograma preparacionBellmanFord = new Histograma();
+    private final Histograma relajacionBellmanFord = new Histograma();
+
+    static {
+        if (ACTIVAS) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCIA, new ObjectName(NOMBRE_JMX));
+            } catch (JMException e) {
+                //Otro cargador de clases ya lo registró: los contadores siguen funcionando
+                System.err.println("No se pudo registrar " + NOMBRE_JMX + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private Metricas() {
+    }
+
+    //Métricas de este proceso (las mismas que se publican por JMX)
+    public static MetricasMXBean get() {
+        return INSTANCIA;
+    }
+
+    /*
+      Histograma de tiempos con una cubeta por potencia de 2 de nanosegundos.
+      Los percentiles se aproximan por el límite superior de la cubeta (error
+      de a lo sumo 2x), suficiente para distinguir una consulta lenta.
+     */
+    static final class Histograma {
+        private final LongAdder[] cubetas = new LongAdder[64];
+        private final LongAdder cantidad = new LongAdder();
+        private final LongAdder suma = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        Histograma() {
+            for (int i = 0; i < cubetas.length; i++) cubetas[i] = new LongAdder();
+        }
+
+        void add(long nanos) {
+            if (nanos < 0) nanos = 0;
+            cubetas[63 - Long.numberOfLeadingZeros(nanos | 1)].increment();
+            cantidad.increment();
+            suma.add(nanos);
+            max.accumulate(nanos);
+        }
+
+        //Límite superior (en ns) de la cubeta donde cae el percentil p
+        long percentil(double p) {
+            long total = cantidad.sum();
+            if (total == 0) return 0;
+            long objetivo = (long) Math.ceil(p * total);
+            long acumulado = 0;
+            for (int i = 0; i < cubetas.length; i++) {
+                acumulado += cubetas[i].sum();
+                if (acumulado >= objetivo) return Math.min((2L << i) - 1, max.get());
+            }
+            return max.get();
+        }
+
+        void put(Map<String, Double> res, String fase) {
+            long c = cantidad.sum();
+            res.put(fase + ".cantidad", (double) c);
+            res.put(fase + ".media", c == 0 ? 0 : suma.sum() / 1000.0 / c);
+            res.put(fase + ".p50", percentil(0.50) / 1000.0);
+            res.put(fase + ".p90", percentil(0.90) / 1000.0);
+            res.put(fase + ".p99", percentil(0.99) / 1000.0);
+            res.put(fase + ".max", max.get() / 1000.0);
+        }
+
+        void reset() {
+            for (LongAdder b : cubetas) b.reset();
+            cantidad.reset();
+            suma.reset();
+            max.reset();
+        }
+    }
+
+    @Name("TrabajoGrafosCompi.Dijkstra")
+    @Label("Consulta Dijkstra")
+    @Category("TrabajoGrafosCompi")
+    static final class EventoDijkstra extends Event {
+        @Label("Origen")
+        int origen;
+        @Label("Cola")
+        String cola;
+        @Label("Nodos asentados")
+        long asentados;
+        @Label("Aristas relajadas")
+        long relajaciones;
+        @Label("Inserciones en cola")
+        long inserciones;
+        @Label("Pico de cola")
+        int picoCola;
+        @Label("Preparación")
+        @Timespan(Timespan.NANOSECONDS)
+        long preparacion;
+        @Label("Búsqueda")
+        @Timespan(Timespan.NANOSECONDS)
+        long busqueda;
+    }
+
+    @Name("TrabajoGrafosCompi.BellmanFord")
+    @Label("Consulta Bellman-Ford")
+    @Category("TrabajoGrafosCompi")
+    static final class EventoBellmanFord extends Event {
+        @Label("Origen")
+        int origen;
+        @Label("Modo")
+        String modo;
+        @Label("Pasadas")
+        int pasadas;
+        @Label("Aristas relajadas")
+        long relajaciones;
+        @Label("Convergió")
+        boolean convergio;
+        @Label("Preparación")
+        @Timespan(Timespan.NANOSECONDS)
+        long preparacion;
+        @Label("Relajación")
+        @Timespan(Timespan.NANOSECONDS)
+        long relajacion;
+    }
+
+    //Evento de JFR que empieza a contar en el inicio de la consulta
+    static EventoDijkstra inicioDijkstra() {
+        EventoDijkstra ev = new EventoDijkstra();
+        ev.begin();
+        return ev;
+    }
+
+    static EventoBellmanFord inicioBellmanFord() {
+        EventoBellmanFord ev = new EventoBellmanFord();
+        ev.begin();
+        return ev;
+    }
+
+    //t0, t1 y t2: inicio, fin de la preparación y fin de la búsqueda (System.nanoTime)
+    static void dijkstra(EventoDijkstra ev, int origen, DijkstraAlgoritmo.Cola cola, long asentados,
+                         long relajaciones, long inserciones, int pico, long t0, long t1, long t2) {
+        Metricas m = INSTANCIA;
+        m.consultasDijkstra.increment();
+        m.nodosAsentados.add(asentados);
+        m.relajacionesDijkstra.add(relajaciones);
+        m.insercionesCola.add(inserciones);
+        m.picoCola.accumulate(pico);
+        m.preparacionDijkstra.add(t1 - t0);
+        m.busquedaDijkstra.add(t2 - t1);
+
+        ev.end();
+        if (ev.shouldCommit()) {
+            ev.origen = origen;
+            ev.cola = cola.name();
+            ev.asentados = asentados;
+            ev.relajaciones = relajaciones;
+            ev.inserciones = inserciones;
+            ev.picoCola = pico;
+            ev.preparacion = t1 - t0;
+            ev.busqueda = t2 - t1;
+            ev.commit();
+        }
+    }
+
+    static void bellmanFord(EventoBellmanFord ev, int origen, BellmanFordMax.Modo modo, int pasadas,
+                            long relajaciones, boolean convergio, long t0, long t1, long t2) {
+        Metricas m = INSTANCIA;
+        m.consultasBellmanFord.increment();
+        m.pasadasBellmanFord.add(pasadas);
+        m.relajacionesBellmanFord.add(relajaciones);
+        if (!convergio) m.bellmanFordSinConvergencia.increment();
+        m.preparacionBellmanFord.add(t1 - t0);
+        m.relajacionBellmanFord.add(t2 - t1);
+
+        ev.end();
+        if (ev.shouldCommit()) {
+            ev.origen = origen;
+            ev.modo = modo.name();
+            ev.pasadas = pasadas;
+            ev.relajaciones = relajaciones;
+            ev.convergio = convergio;
+            ev.preparacion = t1 - t0;
+            ev.relajacion = t2 - t1;
+            ev.commit();
+        }
+    }
+
+    public long getConsultasDijkstra() {
+        return consultasDijkstra.sum();
+    }
+
+    public long getNodosAsentados() {
+        return nodosAsentados.sum();
+    }
+
+    public long getRelajacionesDijkstra() {
+        return relajacionesDijkstra.sum();
+    }
+
+    public long getInsercionesCola() {
+        return insercionesCola.sum();
+    }
+
+    public long getPicoCola() {
+        return picoCola.get();
+    }
+
+    public long getConsultasBellmanFord() {
+        return consultasBellmanFord.sum();
+    }
+
+    public long getPasadasBellmanFord() {
+        return pasadasBellmanFord.sum();
+    }
+
+    public long getRelajacionesBellmanFord() {
+        return relajacionesBellmanFord.sum();
+    }
+
+    public long getBellmanFordSinConvergencia() {
+        return bellmanFordSinConvergencia.sum();
+    }
+
+    public Map<String, Double> getTiemposMicros() {
+        Map<String, Double> res = new TreeMap<>();
+        preparacionDijkstra.put(res, "dijkstra.preparacion");
+        busquedaDijkstra.put(res, "dijkstra.busqueda");
+        preparacionBellmanFord.put(res, "bellmanford.preparacion");
+        relajacionBellmanFord.put(res, "bellmanford.relajacion");
+        return res;
+    }
+
+    public void reiniciar() {
+        consultasDijkstra.reset();
+        nodosAsentados.reset();
+        relajacionesDijkstra.reset();
+        insercionesCola.reset();
+        picoCola.reset();
+        consultasBellmanFord.reset();
+        pasadasBellmanFord.reset();
+        relajacionesBellmanFord.reset();
+        bellmanFordSinConvergencia.reset();
+        preparacionDijkstra.reset();
+        busquedaDijkstra.reset();
+        preparacionBellmanFord.reset();
+        relajacionBellmanFord.reset();
+    }
+}
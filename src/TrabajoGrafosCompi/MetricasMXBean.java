@@ -0,0 +1,44 @@
+package TrabajoGrafosCompi;
+
+import java.util.Map;
+
+/*
+  Vista JMX de las métricas de Dijkstra y Bellman-Ford (ver Metricas).
+  Se registra como TrabajoGrafosCompi:type=Metricas cuando la JVM arranca
+  con -Dgrafos.metricas=true, y se puede leer desde jconsole o VisualVM.
+ */
+public interface MetricasMXBean {
+
+    long getConsultasDijkstra();
+
+    long getNodosAsentados();
+
+    //Aristas examinadas por Dijkstra (mejoren o no la distancia)
+    long getRelajacionesDijkstra();
+
+    //Inserciones y bajadas de prioridad en la cola
+    long getInsercionesCola();
+
+    //Mayor tamaño de cola visto en una consulta
+    long getPicoCola();
+
+    long getConsultasBellmanFord();
+
+    //Pasadas (o rondas en modo COLA) sumadas de todas las consultas
+    long getPasadasBellmanFord();
+
+    long getRelajacionesBellmanFord();
+
+    //Consultas cortadas en n-1 pasadas por ciclos con víctimas
+    long getBellmanFordSinConvergencia();
+
+    /*
+      Tiempos por fase en microsegundos: para cada fase (dijkstra.preparacion,
+      dijkstra.busqueda, bellmanford.preparacion, bellmanford.relajacion)
+      las claves .cantidad, .media, .p50, .p90, .p99 y .max
+     */
+    Map<String, Double> getTiemposMicros();
+
+    //Pone todos los contadores e histogramas en cero
+    void reiniciar();
+}
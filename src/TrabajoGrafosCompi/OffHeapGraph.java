@@ -0,0 +1,257 @@
+package TrabajoGrafosCompi;
+
+import java.lang.foreign.*;
+
+/*
+  Grafo guardado fuera del heap de Java, en MemorySegment de un Arena.
+  Tiene los mismos arreglos que CsrGraph (víctimas, adyacencia CSR y aristas
+  en orden de inserción) pero el recolector de basura no los ve, así que un
+  mapa de cientos de millones de aristas no alarga las pausas de GC ni
+  necesita un heap grande. Los algoritmos lo leen a través de GraphView.
+  La memoria se libera con close() (o try-with-resources); después de eso
+  cualquier lectura lanza IllegalStateException. El transpuesto vive en el
+  mismo Arena y se libera junto con el grafo.
+ */
+public final class OffHeapGraph implements GraphView, AutoCloseable {
+
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT;
+
+    private final Arena arena;
+    private final int n;
+    private final int m;
+    private final int minWeight;
+    private final int maxWeight;
+
+    private final MemorySegment victimas;
+    private final MemorySegment offsets;
+    private final MemorySegment targets;
+    private final MemorySegment weights;
+    private final MemorySegment edgeFrom;
+    private final MemorySegment edgeTo;
+    private final MemorySegment edgeWeight;
+
+    //Transpuesto (comparte arena, víctimas y aristas en orden de inserción)
+    private volatile OffHeapGraph reverse;
+    private final boolean esTranspuesto;
+
+    /*
+      Arma la adyacencia CSR a partir de las aristas en orden de inserción,
+      con el mismo orden de conteo estable que CsrGraph.
+     */
+    private OffHeapGraph(Arena arena, int n, int m, MemorySegment victimas, MemorySegment from,
+                         MemorySegment to, MemorySegment weight, boolean esTranspuesto) {
+        this.arena = arena;
+        this.n = n;
+        this.m = m;
+        this.victimas = victimas;
+        this.edgeFrom = from;
+        this.edgeTo = to;
+        this.edgeWeight = weight;
+        this.esTranspuesto = esTranspuesto;
+
+        int min = 0;
+        int max = 0;
+        offsets = arena.allocate(4L * (n + 1), 4);
+        offsets.fill((byte) 0);
+        for (long i = 0; i < m; i++) {
+            int u = from.getAtIndex(INT, i);
+            offsets.setAtIndex(INT, u + 1L, offsets.getAtIndex(INT, u + 1L) + 1);
+            int d = weight.getAtIndex(INT, i);
+            if (i == 0 || d < min) min = d;
+            if (i == 0 || d > max) max = d;
+        }
+        for (long u = 0; u < n; u++) {
+            offsets.setAtIndex(INT, u + 1, offsets.getAtIndex(INT, u + 1) + offsets.getAtIndex(INT, u));
+        }
+        this.minWeight = min;
+        this.maxWeight = max;
+
+        targets = arena.allocate(4L * m, 4);
+        weights = arena.allocate(4L * m, 4);
+        //El cursor por nodo es temporal: se libera apenas termina la construcción
+        try (Arena temp = Arena.ofConfined()) {
+            MemorySegment next = temp.allocate(4L * n, 4);
+            MemorySegment.copy(offsets, 0, next, 0, 4L * n);
+            for (long i = 0; i < m; i++) {
+                int u = from.getAtIndex(INT, i);
+                int pos = next.getAtIndex(INT, u);
+                next.setAtIndex(INT, u, pos + 1);
+                targets.setAtIndex(INT, pos, to.getAtIndex(INT, i));
+                weights.setAtIndex(INT, pos, weight.getAtIndex(INT, i));
+            }
+        }
+    }
+
+    //Copia cualquier grafo (por ejemplo, un CsrGraph o un MappedGraph) fuera del heap
+    public static OffHeapGraph copyOf(GraphView g) {
+        Builder b = new Builder(g.getN(), g.getM());
+        try {
+            for (int i = 0; i < g.getM(); i++) {
+                b.addEdge(g.edgeFrom(i), g.edgeTo(i), g.edgeWeight(i), g.victims(g.edgeTo(i)));
+            }
+            for (int v = 0; v < g.getN(); v++) {
+                b.setVictims(v, g.victims(v));
+            }
+            return b.build();
+        } catch (RuntimeException | Error e) {
+            //Si la copia falla a medias (por ejemplo, el origen ya estaba cerrado) no dejamos el Arena abierto
+            b.close();
+            throw e;
+        }
+    }
+
+    /*
+      Construcción arista por arista sin pasar por el heap (equivale a
+      Graph.addEdge). La capacidad de aristas se fija al crearlo.
+      La memoria se reserva al crearlo: si nunca se llama a build() hay que
+      cerrarlo (o usarlo en try-with-resources). Después de build() el Arena
+      pasa al grafo y close() ya no hace nada.
+     */
+    public static final class Builder implements AutoCloseable {
+        private final Arena arena = Arena.ofShared();
+        private final int n;
+        private final long capacidad;
+        private final MemorySegment victimas;
+        private final MemorySegment from;
+        private final MemorySegment to;
+        private final MemorySegment weight;
+        private int m;
+        private boolean construido;
+
+        public Builder(int n, int maxEdges) {
+            this.n = n;
+            this.capacidad = maxEdges;
+            try {
+                victimas = arena.allocate(4L * n, 4);
+                victimas.fill((byte) 0);
+                from = arena.allocate(4L * maxEdges, 4);
+                to = arena.allocate(4L * maxEdges, 4);
+                weight = arena.allocate(4L * maxEdges, 4);
+            } catch (RuntimeException | Error e) {
+                arena.close();
+                throw e;
+            }
+        }
+
+        public void addEdge(int u, int v, int d, int c) {
+            if (construido) throw new IllegalStateException("El grafo ya fue construido");
+            if (!arena.scope().isAlive()) throw new IllegalStateException("El builder ya fue cerrado");
+            if (u < 0 || u >= n || v < 0 || v >= n) {
+                throw new IndexOutOfBoundsException("Arista " + u + " -> " + v + " fuera de rango (0 a " + (n - 1) + ")");
+            }
+            if (m == capacidad) throw new IllegalStateException("Se superó la capacidad de " + capacidad + " aristas");
+            from.setAtIndex(INT, m, u);
+            to.setAtIndex(INT, m, v);
+            weight.setAtIndex(INT, m, d);
+            m++;
+            //Las victimas se asignan al nodo destino
+            victimas.setAtIndex(INT, v, c);
+        }
+
+        void setVictims(int v, int c) {
+            victimas.setAtIndex(INT, v, c);
+        }
+
+        public OffHeapGraph build() {
+            if (construido) throw new IllegalStateException("El grafo ya fue construido");
+            if (!arena.scope().isAlive()) throw new IllegalStateException("El builder ya fue cerrado");
+            OffHeapGraph g;
+            try {
+                g = new OffHeapGraph(arena, n, m, victimas, from, to, weight, false);
+            } catch (RuntimeException | Error e) {
+                arena.close();
+                throw e;
+            }
+            construido = true;
+            return g;
+        }
+
+        //Libera la memoria reservada si el grafo no llegó a construirse; cerrar dos veces no hace nada
+        @Override
+        public void close() {
+            if (!construido && arena.scope().isAlive()) arena.close();
+        }
+    }
+
+    //Libera toda la memoria fuera del heap (también la del transpuesto); cerrar dos veces no hace nada
+    @Override
+    public void close() {
+        if (esTranspuesto) {
+            reverse.close();
+            return;
+        }
+        synchronized (this) {
+            if (arena.scope().isAlive()) arena.close();
+        }
+    }
+
+    //Bytes reservados fuera del heap (sin contar el transpuesto)
+    public long getBytes() {
+        return victimas.byteSize() + offsets.byteSize() + targets.byteSize() + weights.byteSize()
+                + edgeFrom.byteSize() + edgeTo.byteSize() + edgeWeight.byteSize();
+    }
+
+    public int getN() {
+        return n;
+    }
+
+    public int getM() {
+        return m;
+    }
+
+    public int victims(int v) {
+        return victimas.getAtIndex(INT, v);
+    }
+
+    public int firstEdge(int u) {
+        return offsets.getAtIndex(INT, u);
+    }
+
+    public int endEdge(int u) {
+        return offsets.getAtIndex(INT, u + 1L);
+    }
+
+    public int target(int e) {
+        return targets.getAtIndex(INT, e);
+    }
+
+    public int weight(int e) {
+        return weights.getAtIndex(INT, e);
+    }
+
+    public int edgeFrom(int i) {
+        return edgeFrom.getAtIndex(INT, i);
+    }
+
+    public int edgeTo(int i) {
+        return edgeTo.getAtIndex(INT, i);
+    }
+
+    public int edgeWeight(int i) {
+        return edgeWeight.getAtIndex(INT, i);
+    }
+
+    //Solo se arma la adyacencia invertida; el resto de los arreglos se comparte
+    public OffHeapGraph reverse() {
+        OffHeapGraph r = reverse;
+        if (r == null) {
+            synchronized (this) {
+                r = reverse;
+                if (r == null) {
+                    r = new OffHeapGraph(arena, n, m, victimas, edgeTo, edgeFrom, edgeWeight, true);
+                    r.reverse = this;
+                    reverse = r;
+                }
+            }
+        }
+        return r;
+    }
+
+    public int getMinWeight() {
+        return minWeight;
+    }
+
+    public int getMaxWeight() {
+        return maxWeight;
+    }
+}
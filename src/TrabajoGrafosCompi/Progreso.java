@@ -0,0 +1,21 @@
+package TrabajoGrafosCompi;
+
+import java.util.concurrent.CancellationException;
+
+/*
+  Aviso de avance de un algoritmo largo (DijkstraAlgoritmo, BellmanFordMax).
+  El algoritmo llama a avanzar cada tanto desde su ciclo principal con el
+  trabajo hecho y el total estimado; si devuelve false, run() se corta
+  lanzando CancellationException. Sin Progreso asignado el ciclo solo
+  compara una referencia con null.
+ */
+public interface Progreso {
+
+    //hecho de total unidades de trabajo; false pide cancelar el cálculo
+    boolean avanzar(long hecho, long total);
+
+    //Avisa el avance y corta el algoritmo si se pidió cancelar
+    default void avisar(long hecho, long total) {
+        if (!avanzar(hecho, total)) throw new CancellationException("Cálculo cancelado");
+    }
+}
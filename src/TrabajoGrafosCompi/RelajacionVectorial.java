@@ -0,0 +1,51 @@
+package TrabajoGrafosCompi;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/*
+  Pasada de Bellman-Ford con la Vector API (jdk.incubator.vector). Por cada
+  bloque de aristas del ancho del vector junta maxVictimas[src] y
+  maxVictimas[dst] con gathers, calcula los candidatos y busca mejoras en
+  todas las posiciones a la vez. Cerca de la convergencia casi ningún bloque
+  mejora nada y se descarta entero sin tocar memoria escalar.
+
+  Si un bloque tiene alguna mejora, desde la primera posición que mejora el
+  resto del bloque se relaja en escalar (AristasSoA.relajar): una mejora
+  puede cambiar valores que leen las aristas siguientes del mismo bloque, o
+  dos posiciones pueden tener el mismo destino. Así el resultado (valores y
+  padres) es idéntico al de una pasada escalar en orden de inserción.
+
+  Solo se carga si el módulo está presente (ver BellmanFordMax.VECTOR_DISPONIBLE).
+ */
+final class RelajacionVectorial {
+
+    private static final VectorSpecies<Integer> ESPECIE = IntVector.SPECIES_PREFERRED;
+
+    //Aristas por bloque
+    static final int ANCHO = ESPECIE.length();
+
+    private RelajacionVectorial() {
+    }
+
+    //Retorna cuántas aristas mejoraron un valor, como AristasSoA.relajar
+    static int pasada(AristasSoA a, int[] maxVictimas, int[] padre) {
+        int limite = ESPECIE.loopBound(a.m);
+        int mejoras = 0;
+        int e = 0;
+        for (; e < limite; e += ANCHO) {
+            IntVector mu = IntVector.fromArray(ESPECIE, maxVictimas, 0, a.src, e);
+            IntVector mv = IntVector.fromArray(ESPECIE, maxVictimas, 0, a.dst, e);
+            IntVector candidatos = mu.add(IntVector.fromArray(ESPECIE, a.victimasDestino, e));
+            VectorMask<Integer> mejora = mu.compare(VectorOperators.GE, 0)
+                    .and(candidatos.compare(VectorOperators.GT, mv));
+            if (mejora.anyTrue()) {
+                mejoras += a.relajar(e + mejora.firstTrue(), e + ANCHO, maxVictimas, padre);
+            }
+        }
+        //Cola que no llena un vector
+        return mejoras + a.relajar(e, a.m, maxVictimas, padre);
+    }
+}